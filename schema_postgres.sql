@@ -32,3 +32,34 @@ CREATE TABLE IF NOT EXISTS bookings (
 
 -- prevent duplicate bookings by same user for same event (DB-level safeguard)
 CREATE UNIQUE INDEX IF NOT EXISTS uq_bookings_user_event ON bookings (user_id, event_id);
+
+-- booking ids use a pooled sequence (allocationSize = 50) so Hibernate can batch inserts
+CREATE SEQUENCE IF NOT EXISTS booking_seq INCREMENT BY 50;
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings));
+
+-- event ids likewise, for batched bulk imports
+CREATE SEQUENCE IF NOT EXISTS event_seq INCREMENT BY 50;
+SELECT setval('event_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM events));
+
+-- keyset pagination of /api/events ordered by (date, id)
+CREATE INDEX IF NOT EXISTS idx_events_date_id ON events (date, id);
+
+-- columns mapped since the tables above were written; spring.jpa.hibernate.ddl-auto no longer adds them at startup
+ALTER TABLE events ADD COLUMN IF NOT EXISTS location VARCHAR(255);
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS seats INT NOT NULL DEFAULT 1;
+
+-- seats left per event for booking.inventory.mode=cluster (V7 on MySQL); NULL = counted from bookings on first use
+ALTER TABLE events ADD COLUMN IF NOT EXISTS remaining INT NULL;
+
+-- seats each node holds off events.remaining, refreshed every rebalance (V9 on MySQL)
+CREATE TABLE IF NOT EXISTS seat_claims (
+    node_id VARCHAR(64) NOT NULL,
+    event_id BIGINT NOT NULL,
+    seats INT NOT NULL,
+    updated_at TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (node_id, event_id)
+);
+CREATE INDEX IF NOT EXISTS idx_seat_claims_event ON seat_claims (event_id);
+
+-- events being deleted in the background; closed for booking and resumed at startup (V10 on MySQL)
+ALTER TABLE events ADD COLUMN IF NOT EXISTS purging BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,105 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.EventBookingApplication;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BookingService.bookTicket against the full Spring context on an embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private ConfigurableApplicationContext ctx;
+    private BookingService bookingService;
+    private long[] userIds;
+    private long eventId;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        // passed as command-line args so they override application.properties
+        ctx = new SpringApplicationBuilder(EventBookingApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.enabled=false",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN");
+        bookingService = ctx.getBean(BookingService.class);
+
+        UserRepository users = ctx.getBean(UserRepository.class);
+        userIds = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User u = new User();
+            u.setUsername("bench" + i);
+            u.setPassword("x");
+            u.setRole("USER");
+            userIds[i] = users.save(u).getId();
+        }
+
+        Event e = new Event();
+        e.setTitle("Benchmark event");
+        e.setDate(LocalDate.now().plusDays(1));
+        e.setCapacity(Integer.MAX_VALUE);
+        eventId = ctx.getBean(EventRepository.class).save(e).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        ctx.close();
+    }
+
+    /**
+     * New booking (admission + insert) followed by its cancellation, so the
+     * (user, event) pair is free again for the next invocation.
+     */
+    @Benchmark
+    public Object bookAndCancel() {
+        long userId = userIds[Math.floorMod(next.getAndIncrement(), USERS)];
+        var booking = bookingService.bookTicket(userId, eventId);
+        bookingService.cancelBooking(booking.getId());
+        return booking;
+    }
+
+    /**
+     * Retried booking that already exists: the idempotent path.
+     */
+    @Benchmark
+    public Object rebookExisting(RebookState state) {
+        return bookingService.bookTicket(state.userId, eventId);
+    }
+
+    @State(Scope.Benchmark)
+    public static class RebookState {
+        long userId;
+
+        @Setup(Level.Trial)
+        public void book(BookingBenchmark bench) {
+            userId = bench.userIds[0];
+            bench.ctx.getBean(BookingRepository.class).deleteAll();
+            bench.bookingService.bookTicket(userId, bench.eventId);
+        }
+    }
+}
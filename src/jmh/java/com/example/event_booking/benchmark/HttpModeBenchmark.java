@@ -0,0 +1,92 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.EventBookingApplication;
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the servlet stack over real HTTP: platform-thread Tomcat vs virtual threads
+ * (spring.threads.virtual.enabled, which also turns on the JDBC concurrency limiter).
+ * Each request is an authenticated GET /api/bookings/me: JWT filter + one query on H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(1)
+public class HttpModeBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext ctx;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = new SpringApplicationBuilder(EventBookingApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:http;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--spring.flyway.enabled=false",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--logging.level.root=WARN");
+
+        User u = new User();
+        u.setUsername("loadtest");
+        u.setPassword("x");
+        u.setRole("USER");
+        u = ctx.getBean(UserRepository.class).save(u);
+        for (int i = 0; i < 5; i++) {
+            Event e = new Event();
+            e.setTitle("Load event " + i);
+            e.setDate(LocalDate.now().plusDays(i));
+            e.setCapacity(100);
+            e = ctx.getBean(EventRepository.class).save(e);
+            ctx.getBean(BookingRepository.class).save(new Booking(u, e));
+        }
+
+        String port = ctx.getEnvironment().getProperty("local.server.port");
+        String token = ctx.getBean(JwtUtil.class).generateToken("loadtest", "USER");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/bookings/me"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int myBookings() throws Exception {
+        HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() != 200) throw new IllegalStateException("HTTP " + res.statusCode());
+        return res.statusCode();
+    }
+}
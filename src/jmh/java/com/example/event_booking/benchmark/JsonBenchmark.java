@@ -0,0 +1,61 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.model.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the event and booking list responses, using the same
+ * ObjectMapper setup Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectMapper mapper;
+    private List<Event> events;
+    private List<BookingView> bookings;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        events = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            Event e = new Event();
+            e.setId((long) i);
+            e.setTitle("Event " + i);
+            e.setDescription("Description of event " + i);
+            e.setDate(today.plusDays(i % 365));
+            e.setCapacity(100);
+            events.add(e);
+            bookings.add(new BookingView((long) i, 1, (long) (i % 50), "user" + (i % 50),
+                    e.getId(), e.getTitle(), e.getDate(), e.getCapacity()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEvents() throws Exception {
+        return mapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws Exception {
+        return mapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtUtil(SECRET, 3_600_000, 50_000, 300_000, new SimpleMeterRegistry());
+        // zero TTL: every call pays parsing + HMAC verification
+        uncached = new JwtUtil(SECRET, 3_600_000, 50_000, 0, new SimpleMeterRegistry());
+        token = cached.generateToken("alice", "USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("alice", "USER");
+    }
+
+    @Benchmark
+    public String validateCached() {
+        return cached.validateAndGetUsername(token);
+    }
+
+    @Benchmark
+    public String validateUncached() {
+        return uncached.validateAndGetUsername(token);
+    }
+}
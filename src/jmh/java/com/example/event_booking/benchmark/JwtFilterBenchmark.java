@@ -0,0 +1,51 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.security.JwtAuthenticationFilter;
+import com.example.event_booking.security.PrincipalCache;
+import com.example.event_booking.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated API request through JwtAuthenticationFilter (role answered by a warm PrincipalCache).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil("benchmark-secret-benchmark-secret-0123456789",
+                3_600_000, 50_000, 300_000, new SimpleMeterRegistry());
+        // warm role cache: the UserService lookup behind it is never reached
+        PrincipalCache principals = new PrincipalCache(10_000, 3_600_000);
+        principals.roleFor("alice", u -> "USER");
+        filter = new JwtAuthenticationFilter(jwtUtil, null, principals, new SimpleMeterRegistry());
+        authorization = "Bearer " + jwtUtil.generateToken("alice", "USER");
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/bookings/me");
+        req.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(req, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -1,17 +1,43 @@
 package com.example.event_booking.config;
 
+import com.example.event_booking.controller.AuthController;
+import com.example.event_booking.controller.BookingController;
+import com.example.event_booking.controller.EventController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
+@EnableScheduling // periodic jobs such as the availability stream flush
 public class AppConfig {
 
-    // PasswordEncoder used across services (UserService etc.)
+    // PasswordEncoder used across services (UserService etc.); hashes below this cost are upgraded on login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // With spring.main.lazy-initialization everything else waits for first use; the login, listing and booking
+    // controllers (and so their services, repositories and the EntityManagerFactory) are still built at startup
+    // so the first request doesn't pay for them. Beans with @Scheduled methods are kept eager by Boot.
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                AuthController.class, EventController.class, BookingController.class);
+    }
+
+    // schema.migrate-on-start=false: start without running (or validating) Flyway, e.g. replicas started after
+    // a one-off migration run, and the CDS training run in the Dockerfile, which has no database
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${schema.migrate-on-start:true}") boolean migrate) {
+        return flyway -> {
+            if (migrate) flyway.migrate();
+        };
     }
 
     // Add other shared beans here (ObjectMapper, ModelMapper, etc.)
@@ -0,0 +1,128 @@
+package com.example.event_booking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent JDBC connection checkouts with a fair semaphore (jdbc.concurrency-limit.*).
+ *
+ * With virtual threads every request gets its own thread, so thousands of them
+ * can reach the pool at once. They queue here instead, where waiting only
+ * parks the virtual thread, and only as many as the pool can serve go on to Hikari.
+ * Enabled by default whenever spring.threads.virtual.enabled is on.
+ */
+@Component
+public class JdbcConcurrencyLimiter implements BeanPostProcessor {
+
+    private final boolean enabled;
+    private final int permits;
+    private final long acquireTimeoutMs;
+
+    public JdbcConcurrencyLimiter(
+            @Value("${jdbc.concurrency-limit.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${jdbc.concurrency-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${jdbc.concurrency-limit.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        this.enabled = enabled;
+        this.permits = permits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource ds && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(ds, new Semaphore(permits, true), acquireTimeoutMs);
+        }
+        return bean;
+    }
+
+    static class LimitedDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long acquireTimeoutMs;
+
+        LimitedDataSource(DataSource target, Semaphore permits, long acquireTimeoutMs) {
+            super(target);
+            this.permits = permits;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection());
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasing(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("JDBC concurrency limit reached; timed out after " + acquireTimeoutMs + "ms");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit", ex);
+            }
+        }
+
+        // hands the permit back exactly once, when the caller closes the connection.
+        // Identity and unwrap(Connection) answer for the proxy itself, so the wrapper can't be compared
+        // away or bypassed; unwrap to vendor interfaces still reaches the target
+        private Connection releasing(Connection target) {
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "toString":
+                                return "Limited[" + target + "]";
+                            case "unwrap":
+                                if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                                break;
+                            case "isWrapperFor":
+                                if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                                break;
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        } finally {
+                            if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    });
+        }
+    }
+}
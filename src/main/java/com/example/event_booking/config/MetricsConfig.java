@@ -0,0 +1,47 @@
+package com.example.event_booking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Metrics not covered by Spring Boot's auto-configuration.
+ *
+ * - hikaricp.connections.saturation: active / maximum connections (0..1); together with
+ *   Boot's hikaricp.connections.pending it shows whether the pool is the bottleneck
+ * - everything else (http.server.requests, spring.data.repository.invocations, hikaricp.*,
+ *   hibernate.* incl. second-level and query cache hits/misses per region) comes from the actuator; percentile histograms are switched on in application.properties
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder hikariSaturation(DataSource dataSource) {
+        return registry -> {
+            HikariDataSource hikari;
+            try {
+                // the bean may be wrapped (JdbcConcurrencyLimiter); unwrap to reach the pool
+                if (!dataSource.isWrapperFor(HikariDataSource.class)) return;
+                hikari = dataSource.unwrap(HikariDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("hikaricp.connections.saturation", hikari, MetricsConfig::saturation)
+                    .description("Active connections as a fraction of the maximum pool size")
+                    .register(registry);
+        };
+    }
+
+    private static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean(); // null until the pool has started
+        int max = hikari.getMaximumPoolSize();
+        if (pool == null || max <= 0) return 0;
+        return (double) pool.getActiveConnections() / max;
+    }
+}
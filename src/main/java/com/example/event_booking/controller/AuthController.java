@@ -1,5 +1,6 @@
 package com.example.event_booking.controller;
 
+import com.example.event_booking.exception.ServiceBusyException;
 import com.example.event_booking.model.User;
 import com.example.event_booking.service.UserService;
 import com.example.event_booking.util.JwtUtil;
@@ -7,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,51 +22,77 @@ public class AuthController {
         this.jwtUtil = jwtUtil;
     }
 
+    /**
+     * Register a user. Hashing runs on the password-hashing pool, so the response
+     * is completed asynchronously; 503 when that pool is saturated.
+     */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> body) {
-        if (body == null) return ResponseEntity.badRequest().body(Map.of("message","body missing"));
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, String> body) {
+        if (body == null) return done(ResponseEntity.badRequest().body(Map.of("message","body missing")));
         String username = body.get("username");
         String password = body.get("password");
         String role = body.getOrDefault("role", "USER");
 
         if (username == null || password == null)
-            return ResponseEntity.badRequest().body(Map.of("message","username and password required"));
+            return done(ResponseEntity.badRequest().body(Map.of("message","username and password required")));
 
         try {
             User u = new User();
             u.setUsername(username.trim());
             u.setPassword(password);
             u.setRole(role);
-            User created = userService.createUser(u);
-            return ResponseEntity.ok(Map.of("id", created.getId(), "username", created.getUsername()));
+            return userService.register(u)
+                    .<ResponseEntity<?>>thenApply(created -> ResponseEntity.ok(Map.of("id", created.getId(), "username", created.getUsername())))
+                    .exceptionally(ex -> failure(ex, 500, "Internal error"));
         } catch (IllegalArgumentException ex) {
-            return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+            return done(ResponseEntity.badRequest().body(Map.of("message", ex.getMessage())));
         } catch (Exception ex) {
-            return ResponseEntity.status(500).body(Map.of("message","Internal error"));
+            return done(ResponseEntity.status(500).body(Map.of("message","Internal error")));
         }
     }
 
+    /**
+     * Log in. The password check runs on the password-hashing pool and the request
+     * thread is released meanwhile; 503 when that pool is saturated.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String,String> body) {
-        if (body == null) return ResponseEntity.badRequest().body(Map.of("message","body missing"));
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String,String> body) {
+        if (body == null) return done(ResponseEntity.badRequest().body(Map.of("message","body missing")));
         String username = body.get("username");
         String password = body.get("password");
-        if (username == null || password == null) return ResponseEntity.badRequest().body(Map.of("message","username and password required"));
+        if (username == null || password == null) return done(ResponseEntity.badRequest().body(Map.of("message","username and password required")));
 
         try {
-            User user = userService.findByUsername(username);
-            if (!userService.checkPassword(password, user.getPassword())) {
-                return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
-            }
-            // generate token including role so client can detect admin
-            String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
-            return ResponseEntity.ok(Map.of(
-                    "token", token,
-                    "username", user.getUsername(),
-                    "role", user.getRole()
-            ));
+            return userService.authenticate(username, password)
+                    .<ResponseEntity<?>>thenApply(found -> {
+                        if (found.isEmpty()) {
+                            return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+                        }
+                        User user = found.get();
+                        // generate token including role so client can detect admin
+                        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+                        return ResponseEntity.ok(Map.of(
+                                "token", token,
+                                "username", user.getUsername(),
+                                "role", user.getRole()
+                        ));
+                    })
+                    .exceptionally(ex -> failure(ex, 401, "Invalid credentials"));
         } catch (Exception ex) {
-            return ResponseEntity.status(401).body(Map.of("message","Invalid credentials"));
+            return done(ResponseEntity.status(401).body(Map.of("message","Invalid credentials")));
         }
     }
-}
\ No newline at end of file
+
+    private static CompletableFuture<ResponseEntity<?>> done(ResponseEntity<?> response) {
+        return CompletableFuture.completedFuture(response);
+    }
+
+    // hashing pool full -> 503 with Retry-After; anything else keeps the endpoint's usual error
+    private static ResponseEntity<?> failure(Throwable ex, int status, String message) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof ServiceBusyException) {
+            return ResponseEntity.status(503).header("Retry-After", "1").body(Map.of("message", cause.getMessage()));
+        }
+        return ResponseEntity.status(status).body(Map.of("message", message));
+    }
+}
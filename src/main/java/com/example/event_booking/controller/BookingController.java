@@ -1,12 +1,32 @@
 package com.example.event_booking.controller;
 
-import com.example.event_booking.model.Booking;
-import com.example.event_booking.model.User;
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.dto.BulkBookingRequest;
+import com.example.event_booking.exception.BookingConflictException;
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.exception.SoldOutException;
 import com.example.event_booking.service.BookingService;
+import com.example.event_booking.service.IdempotencyStore;
+import com.example.event_booking.service.SeatHolds;
+import com.example.event_booking.service.SeatInventory;
+import com.example.event_booking.service.WaitingRoom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -15,54 +35,218 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private WaitingRoom waitingRoom;
+
+    @Autowired
+    private SeatInventory inventory;
+
+    @Autowired
+    private SeatHolds seatHolds;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${bulk.max-items:100000}")
+    private long bulkMaxItems;
+
+    // seats: how many seats this booking takes (1..booking.max-seats), one row either way
     @PostMapping("/book/{userId}/{eventId}")
-    public Booking bookTicket(@PathVariable Long userId, @PathVariable Long eventId) throws Exception {
-        return bookingService.bookTicket(userId, eventId);
+    public BookingView bookTicket(@PathVariable Long userId, @PathVariable Long eventId,
+                                  @RequestParam(defaultValue = "1") int seats) throws Exception {
+        return BookingView.of(bookingService.bookTicket(userId, eventId, seats));
+    }
+
+    // Bulk booking (admin): JSON array or NDJSON of { userId, eventId, seats? }, same rules as /book/{userId}/{eventId}.
+    // Streams back NDJSON: one { index, status: created|exists|conflict|sold_out|error, id, message } line per item.
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> bookBulk(HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = BulkStreams.process(request.getInputStream(), mapper, BulkBookingRequest.class,
+                bulkChunkSize, bulkMaxItems, bookingService::bookBulk);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
-    // New: book for the currently authenticated user
+    // New: book for the currently authenticated user; ?seats=n books n seats in one request and one row
+    // Idempotent: a repeated Idempotency-Key (or a second booking of the same event and seat count) returns the
+    // original booking; a second booking of the event with another seat count is a 409;
+    // reusing a key for another event or seat count is a 422, and a cancelled booking is no longer replayed
+    // With booking.waiting-room.enabled an admitted X-Admission-Ticket is required (428 without one, 429 while queued)
     @PostMapping("/book/{eventId}")
     public ResponseEntity<?> bookForCurrentUser(org.springframework.security.core.Authentication authentication,
-                                                @PathVariable Long eventId) {
+                                                @PathVariable Long eventId,
+                                                @RequestParam(defaultValue = "1") int seats,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                @RequestHeader(value = "X-Admission-Ticket", required = false) String admissionTicket) {
         if (authentication == null || authentication.getName() == null) {
             return ResponseEntity.status(401).body(java.util.Map.of("message", "Unauthorized"));
         }
         String username = authentication.getName();
-        User user = bookingService.getUserByUsername(username);
+        if (idempotencyKey != null) {
+            IdempotencyStore.Replay previous = idempotencyStore.get(username, idempotencyKey);
+            if (previous != null) {
+                if (!previous.matches(eventId, seats)) {
+                    return ResponseEntity.unprocessableEntity().body(java.util.Map.of("message",
+                            "Idempotency-Key was already used for event " + previous.eventId() + " with " + previous.seats() + " seat(s)"));
+                }
+                return ResponseEntity.ok(previous.response());
+            }
+        }
+        ResponseEntity<?> rejected = admissionCheck(username, eventId, admissionTicket);
+        if (rejected != null) return rejected;
         try {
-            Booking booking = bookingService.bookTicket(user.getId(), eventId);
+            BookingView booking = BookingView.of(bookingService.bookTicketForUsername(username, eventId, seats));
+            if (idempotencyKey != null) idempotencyStore.put(username, idempotencyKey, eventId, seats, booking);
             return ResponseEntity.ok(booking);
+        } catch (SoldOutException | BookingConflictException ex) {
+            return ResponseEntity.status(409).body(java.util.Map.of("message", ex.getMessage()));
+        } catch (ServiceBusyException ex) {
+            return ResponseEntity.status(503).body(java.util.Map.of("message", ex.getMessage()));
         } catch (Exception ex) {
             // If event not found or other business error, propagate message
             return ResponseEntity.badRequest().body(java.util.Map.of("message", ex.getMessage()));
         }
     }
 
+    // Hold one seat for the current user; confirm within booking.hold.ttl-ms or it is released.
+    // Goes through the same sold-out / waiting-room checks as booking.
+    @PostMapping("/hold/{eventId}")
+    public ResponseEntity<?> holdSeat(org.springframework.security.core.Authentication authentication,
+                                      @PathVariable Long eventId,
+                                      @RequestHeader(value = "X-Admission-Ticket", required = false) String admissionTicket) {
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(401).body(java.util.Map.of("message", "Unauthorized"));
+        }
+        ResponseEntity<?> rejected = admissionCheck(authentication.getName(), eventId, admissionTicket);
+        if (rejected != null) return rejected;
+        try {
+            return ResponseEntity.status(201).body(seatHolds.hold(authentication.getName(), eventId));
+        } catch (SoldOutException ex) {
+            return ResponseEntity.status(409).body(java.util.Map.of("message", ex.getMessage()));
+        } catch (ServiceBusyException ex) {
+            return ResponseEntity.status(503).body(java.util.Map.of("message", ex.getMessage()));
+        } catch (Exception ex) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", ex.getMessage()));
+        }
+    }
+
+    // Turn a hold into a booking (404 if it expired)
+    @PostMapping("/hold/{holdId}/confirm")
+    public BookingView confirmHold(org.springframework.security.core.Authentication authentication, @PathVariable String holdId) {
+        return BookingView.of(seatHolds.confirm(authentication.getName(), holdId));
+    }
+
+    // Give a held seat back early
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<Void> releaseHold(org.springframework.security.core.Authentication authentication, @PathVariable String holdId) {
+        seatHolds.release(authentication.getName(), holdId);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public void cancelBooking(@PathVariable Long id) {
         bookingService.cancelBooking(id);
+        idempotencyStore.forget(id);
+    }
+
+    // Rejections that need no lock and no query: sold out in memory, or not admitted by the waiting room.
+    // Returns null when the request may proceed.
+    private ResponseEntity<?> admissionCheck(String username, Long eventId, String admissionTicket) {
+        if (inventory.isSoldOut(eventId)) {
+            // same meter BookingService counts its own sold-out rejections on
+            meterRegistry.counter("booking.rejected", "reason", "sold_out").increment();
+            return ResponseEntity.status(409).body(java.util.Map.of("message", new SoldOutException(eventId).getMessage()));
+        }
+        if (waitingRoom.isEnabled() && !waitingRoom.isAdmitted(admissionTicket, username, eventId)) {
+            if (!waitingRoom.isValidTicket(admissionTicket, username, eventId)) {
+                return ResponseEntity.status(428).body(java.util.Map.of("message",
+                        "Admission ticket required; join the queue at /api/waiting-room/" + eventId));
+            }
+            return ResponseEntity.status(429).header("Retry-After", "2")
+                    .body(java.util.Map.of("message", "Not admitted yet; check /api/waiting-room/" + eventId));
+        }
+        return null;
+    }
+
+    // Streamed export (admin), ordered by booking id: NDJSON (default) or CSV.
+    // Rows are written as they come off the DB cursor, so memory stays flat however many there are;
+    // afterId/limit page through it (the admin page loads a page at a time).
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(defaultValue = "0") long afterId,
+                                                                @RequestParam(required = false) Integer limit) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) throw new IllegalArgumentException("format must be ndjson or csv");
+        if (limit != null && limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (csv) writer.write("booking_id,user_id,username,event_id,event_title,event_date,event_capacity,seats\n");
+            try {
+                bookingService.exportBookings(afterId, limit, view -> {
+                    try {
+                        writer.write(csv ? csvLine(view) : mapper.writeValueAsString(view) + "\n");
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause(); // client went away; the cursor is already closed
+            }
+            writer.flush();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (csv) {
+            response.contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header("Content-Disposition", "attachment; filename=\"bookings.csv\"");
+        } else {
+            response.contentType(MediaType.APPLICATION_NDJSON);
+        }
+        return response.body(body);
+    }
+
+    private static String csvLine(BookingView v) {
+        return v.getId() + "," + v.getUser().getId() + "," + csvField(v.getUser().getUsername()) + ","
+                + v.getEvent().getId() + "," + csvField(v.getEvent().getTitle()) + ","
+                + (v.getEvent().getDate() == null ? "" : v.getEvent().getDate()) + ","
+                + (v.getEvent().getCapacity() == null ? "" : v.getEvent().getCapacity()) + ","
+                + v.getSeats() + "\n";
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks
+    private static String csvField(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
     }
 
     @GetMapping
-    public List<Booking> getBookings() {
+    public List<BookingView> getBookings() {
         return bookingService.getBookings();
     }
 
     // get bookings for specific user
     @GetMapping("/user/{userId}")
-    public List<Booking> getBookingsForUser(@PathVariable Long userId) {
+    public List<BookingView> getBookingsForUser(@PathVariable Long userId) {
         return bookingService.getBookingsByUser(userId);
     }
 
-    // returns bookings for the authenticated user
+    // returns bookings for the authenticated user (single query, keyed by username)
     @GetMapping("/me")
-    public ResponseEntity<List<Booking>> getMyBookings(org.springframework.security.core.Authentication authentication) {
+    public ResponseEntity<List<BookingView>> getMyBookings(org.springframework.security.core.Authentication authentication) {
         if (authentication == null || authentication.getName() == null) {
             return ResponseEntity.status(401).build();
         }
-        String username = authentication.getName();
-        User user = bookingService.getUserByUsername(username);
-        var bookings = bookingService.getBookingsByUser(user.getId());
+        var bookings = bookingService.getBookingsByUsername(authentication.getName());
         return ResponseEntity.ok(bookings);
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.event_booking.controller;
+
+import com.example.event_booking.dto.BulkResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing of the bulk endpoints.
+ *
+ * - the request body is read incrementally, either as one JSON array or as NDJSON
+ *   (one object per line), so it is never held in memory as a whole
+ * - items are handed to the service in chunks; each chunk is one transaction / JDBC batch
+ * - results go back as NDJSON, one BulkResult per input item, flushed after every chunk
+ * - malformed input stops the import with an error line at the offending index;
+ *   chunks already written stay committed
+ */
+final class BulkStreams {
+
+    private BulkStreams() {}
+
+    static <T> StreamingResponseBody process(InputStream body, ObjectMapper mapper, Class<T> type,
+                                             int chunkSize, long maxItems,
+                                             Function<List<T>, List<BulkResult>> chunkHandler) {
+        ObjectWriter writer = mapper.writerFor(BulkResult.class);
+        return out -> {
+            long index = 0;
+            List<T> chunk = new ArrayList<>(chunkSize);
+            String failure = null;
+            // readValues() iterates the elements of a root-level array, or whitespace-separated values
+            try (MappingIterator<T> items = mapper.readerFor(type).readValues(body)) {
+                while (items.hasNextValue()) {
+                    if (index + chunk.size() >= maxItems) {
+                        failure = "too many items, limit is " + maxItems;
+                        break;
+                    }
+                    chunk.add(items.nextValue());
+                    if (chunk.size() == chunkSize) {
+                        index = flush(chunk, index, chunkHandler, out, writer);
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                failure = "malformed input: " + ex.getOriginalMessage();
+            }
+            // items read before a failure are still imported
+            if (!chunk.isEmpty()) index = flush(chunk, index, chunkHandler, out, writer);
+            if (failure != null) write(out, writer, withIndex(BulkResult.error(failure), index));
+            out.flush();
+        };
+    }
+
+    private static <T> long flush(List<T> chunk, long index, Function<List<T>, List<BulkResult>> chunkHandler,
+                                  OutputStream out, ObjectWriter writer) throws IOException {
+        List<BulkResult> results;
+        try {
+            results = chunkHandler.apply(chunk);
+        } catch (RuntimeException ex) {
+            // the whole chunk was rolled back
+            results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) results.add(BulkResult.error(ex.getMessage()));
+        }
+        for (int i = 0; i < results.size(); i++) write(out, writer, withIndex(results.get(i), index + i));
+        out.flush();
+        long next = index + chunk.size();
+        chunk.clear();
+        return next;
+    }
+
+    private static BulkResult withIndex(BulkResult result, long index) {
+        result.setIndex(index);
+        return result;
+    }
+
+    private static void write(OutputStream out, ObjectWriter writer, BulkResult result) throws IOException {
+        out.write(writer.writeValueAsBytes(result));
+        out.write('\n');
+    }
+}
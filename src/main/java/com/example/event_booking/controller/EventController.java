@@ -1,30 +1,131 @@
 package com.example.event_booking.controller;
 
+import com.example.event_booking.dto.EventAvailability;
+import com.example.event_booking.dto.EventSearchResult;
+import com.example.event_booking.dto.EventSuggestion;
 import com.example.event_booking.exception.ResourceNotFoundException;
 import com.example.event_booking.model.Event;
+import com.example.event_booking.service.AvailabilityStream;
+import com.example.event_booking.service.EventCatalogue;
 import com.example.event_booking.service.EventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
 public class EventController {
     private final EventService eventService;
-    public EventController(EventService eventService) { this.eventService = eventService; }
+    private final AvailabilityStream availabilityStream;
+    private final CacheControl catalogueCacheControl;
+    private final ObjectMapper mapper;
+    private final int bulkChunkSize;
+    private final long bulkMaxItems;
 
+    public EventController(EventService eventService, AvailabilityStream availabilityStream,
+                           @Value("${events.catalogue.max-age-seconds:30}") long catalogueMaxAge,
+                           ObjectMapper mapper,
+                           @Value("${bulk.chunk-size:500}") int bulkChunkSize,
+                           @Value("${bulk.max-items:100000}") long bulkMaxItems) {
+        this.eventService = eventService;
+        this.availabilityStream = availabilityStream;
+        this.catalogueCacheControl = CacheControl.maxAge(catalogueMaxAge, TimeUnit.SECONDS).cachePublic();
+        this.mapper = mapper;
+        this.bulkChunkSize = bulkChunkSize;
+        this.bulkMaxItems = bulkMaxItems;
+    }
+
+    /**
+     * List events.
+     * Without parameters returns the full list (legacy shape used by the calendar),
+     * served from pre-serialized bytes with a strong ETag and Cache-Control max-age;
+     * a matching If-None-Match gets 304 Not Modified.
+     * With any of from/to/cursor/limit returns a keyset page: { items, nextCursor }.
+     */
     @GetMapping("/events")
-    public List<Event> listEvents() {
-        return eventService.listEvents();
+    public ResponseEntity<?> listEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (from == null && to == null && cursor == null && limit == null) {
+            EventCatalogue.Snapshot catalogue = eventService.getCatalogue();
+            if (request.checkNotModified(catalogue.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(catalogue.etag()).cacheControl(catalogueCacheControl).build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(catalogue.etag())
+                    .cacheControl(catalogueCacheControl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(catalogue.json());
+        }
+        return ResponseEntity.ok(eventService.listEventsPage(from, to, cursor, limit));
+    }
+
+    /**
+     * Booked and remaining seats per event: [{ eventId, capacity, booked, remaining }].
+     * Public, like the event list, so the calendar doesn't need to download bookings.
+     */
+    @GetMapping("/events/availability")
+    public List<EventAvailability> availability() {
+        return eventService.getAvailability();
+    }
+
+    /**
+     * Full-text search over title, location and description: { items, total, facets }.
+     * Every word of q must match, the last one as a prefix; best matches first.
+     * from/to/location narrow the matches (without q they come back by date);
+     * facets count all matches by location and month. limit is clamped to events.search.max-results.
+     */
+    @GetMapping("/events/search")
+    public EventSearchResult search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer limit) {
+        return eventService.search(q, from, to, location, limit);
+    }
+
+    /**
+     * Typeahead: [{ id, title, date }] for upcoming events with a title word starting with q.
+     */
+    @GetMapping("/events/suggest")
+    public List<EventSuggestion> suggest(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return eventService.suggest(q, limit);
+    }
+
+    /**
+     * Live availability over Server-Sent Events.
+     * Sends "availability" messages: [{ eventId, remaining, deleted }], coalesced per event.
+     */
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void stream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        availabilityStream.subscribe(request, response);
     }
 
     /**
      * Create new event (admin only).
-     * Expects JSON body matching Event (title, description, date, capacity).
+     * Expects JSON body matching Event (title, description, location, date, capacity).
      * Returns 201 Created with Location header.
      */
     @PostMapping("/events")
@@ -42,15 +143,33 @@ public class EventController {
         }
     }
 
+    /**
+     * Bulk import (admin only).
+     * Body: a JSON array of events or NDJSON, validated like POST /api/events.
+     * Response: NDJSON, one { index, status: created|error, id, message } line per input event,
+     * streamed back as each chunk of bulk.chunk-size events commits.
+     */
+    @PostMapping("/events/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importEvents(HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = BulkStreams.process(request.getInputStream(), mapper, Event.class,
+                bulkChunkSize, bulkMaxItems, eventService::importEvents);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Delete event and any bookings that reference it.
-     * Admin-only.
+     * Admin-only. 204 when done; 202 Accepted when the event has more than
+     * events.delete.async-threshold bookings and is being purged in the background
+     * (it stops taking bookings immediately).
      */
     @DeleteMapping("/events/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteEvent(@PathVariable Long id) {
         try {
-            eventService.deleteEvent(id);
+            if (!eventService.deleteEvent(id)) {
+                return ResponseEntity.accepted().body(Map.of("message", "Event closed; bookings are being deleted"));
+            }
             return ResponseEntity.noContent().build();
         } catch (ResourceNotFoundException ex) {
             return ResponseEntity.status(404).body(Map.of("message", ex.getMessage()));
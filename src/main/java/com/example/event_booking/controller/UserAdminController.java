@@ -0,0 +1,31 @@
+package com.example.event_booking.controller;
+
+import com.example.event_booking.model.User;
+import com.example.event_booking.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserAdminController {
+    private final UserService userService;
+
+    public UserAdminController(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * Change a user's role (admin only). Body: { "role": "USER" | "ADMIN" }.
+     * Takes effect on the user's next request, including with tokens issued before the change.
+     */
+    @PutMapping("/{username}/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> changeRole(@PathVariable String username, @RequestBody Map<String, String> body) {
+        if (body == null) return ResponseEntity.badRequest().body(Map.of("message", "body missing"));
+        User user = userService.changeRole(username, body.get("role"));
+        return ResponseEntity.ok(Map.of("username", user.getUsername(), "role", user.getRole()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.event_booking.controller;
+
+import com.example.event_booking.dto.AdmissionStatus;
+import com.example.event_booking.service.WaitingRoom;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+public class WaitingRoomController {
+    private final WaitingRoom waitingRoom;
+
+    public WaitingRoomController(WaitingRoom waitingRoom) { this.waitingRoom = waitingRoom; }
+
+    /**
+     * Join the queue for an event.
+     * Returns { eventId, position, ahead, admitted, soldOut, ticket }; 409 if sold out.
+     */
+    @PostMapping("/{eventId}")
+    public AdmissionStatus join(Authentication authentication, @PathVariable Long eventId) {
+        return waitingRoom.join(authentication.getName(), eventId);
+    }
+
+    /**
+     * Poll the caller's place in the queue. Once admitted, book with the returned
+     * ticket in the X-Admission-Ticket header. 404 if the caller hasn't joined
+     * (or joined a room that has since been dropped): POST to join.
+     */
+    @GetMapping("/{eventId}")
+    public AdmissionStatus status(Authentication authentication, @PathVariable Long eventId) {
+        return waitingRoom.status(authentication.getName(), eventId);
+    }
+}
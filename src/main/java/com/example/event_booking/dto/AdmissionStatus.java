@@ -0,0 +1,16 @@
+package com.example.event_booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AdmissionStatus {
+    private Long eventId;
+    private long position;
+    private long ahead; // people in front who are not admitted yet
+    private boolean admitted;
+    private boolean soldOut;
+
+    private String ticket; // send as X-Admission-Ticket when booking
+}
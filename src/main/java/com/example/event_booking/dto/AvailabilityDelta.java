@@ -0,0 +1,12 @@
+package com.example.event_booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AvailabilityDelta {
+    private Long eventId;
+    private long remaining;
+    private boolean deleted;
+}
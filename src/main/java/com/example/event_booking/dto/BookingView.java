@@ -0,0 +1,51 @@
+package com.example.event_booking.dto;
+
+import com.example.event_booking.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Read model for booking endpoints.
+ * Keeps the { id, user: {...}, event: {...} } shape the pages expect, without
+ * serializing entities (no lazy proxies, no password hash).
+ */
+@Data
+public class BookingView {
+    private Long id;
+    private int seats;
+    private UserSummary user;
+    private EventSummary event;
+
+    // used by the JPQL constructor expressions in BookingRepository
+    public BookingView(Long id, Integer seats, Long userId, String username,
+                       Long eventId, String eventTitle, LocalDate eventDate, Integer eventCapacity) {
+        this.id = id;
+        this.seats = seats == null ? 1 : seats;
+        this.user = new UserSummary(userId, username);
+        this.event = new EventSummary(eventId, eventTitle, eventDate, eventCapacity);
+    }
+
+    public static BookingView of(Booking b) {
+        return new BookingView(b.getId(), b.getSeats(),
+                b.getUser().getId(), b.getUser().getUsername(),
+                b.getEvent().getId(), b.getEvent().getTitle(), b.getEvent().getDate(), b.getEvent().getCapacity());
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class UserSummary {
+        private Long id;
+        private String username;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class EventSummary {
+        private Long id;
+        private String title;
+        private LocalDate date;
+        private Integer capacity;
+    }
+}
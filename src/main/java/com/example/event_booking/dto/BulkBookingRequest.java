@@ -0,0 +1,10 @@
+package com.example.event_booking.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkBookingRequest {
+    private Long userId;
+    private Long eventId;
+    private Integer seats; // defaults to 1
+}
@@ -0,0 +1,25 @@
+package com.example.event_booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One line of a bulk endpoint's NDJSON response, for the input item at {@code index}.
+ * status: created | exists | conflict | sold_out | error
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResult {
+    private long index;
+    private String status;
+    private Long id;
+    private String message;
+
+    public static BulkResult created(Long id) { return new BulkResult(0, "created", id, null); }
+    public static BulkResult exists(Long id) { return new BulkResult(0, "exists", id, null); }
+    public static BulkResult conflict(String message) { return new BulkResult(0, "conflict", null, message); }
+    public static BulkResult soldOut(String message) { return new BulkResult(0, "sold_out", null, message); }
+    public static BulkResult error(String message) { return new BulkResult(0, "error", null, message); }
+}
@@ -0,0 +1,19 @@
+package com.example.event_booking.dto;
+
+import lombok.Data;
+
+@Data
+public class EventAvailability {
+    private Long eventId;
+    private int capacity;
+    private long booked; // seats, not bookings
+    private long remaining;
+
+    // used by the JPQL constructor expression in EventRepository.findAvailability (booked is null without bookings)
+    public EventAvailability(Long eventId, Integer capacity, Long booked) {
+        this.eventId = eventId;
+        this.capacity = capacity == null ? 0 : capacity;
+        this.booked = booked == null ? 0 : booked;
+        this.remaining = Math.max(this.capacity - this.booked, 0);
+    }
+}
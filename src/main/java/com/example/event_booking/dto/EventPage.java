@@ -0,0 +1,15 @@
+package com.example.event_booking.dto;
+
+import com.example.event_booking.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class EventPage {
+    private List<Event> items;
+
+    private String nextCursor; // null when this is the last page
+}
@@ -0,0 +1,19 @@
+package com.example.event_booking.dto;
+
+import com.example.event_booking.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class EventSearchResult {
+    private List<Event> items; // best match first
+
+    private long total; // all matches, not just this page
+
+    // facet -> value -> matches, over all matches: "location" and "month" (yyyy-MM)
+    private Map<String, Map<String, Long>> facets;
+}
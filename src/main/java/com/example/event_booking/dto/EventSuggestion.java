@@ -0,0 +1,14 @@
+package com.example.event_booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class EventSuggestion {
+    private Long id;
+    private String title;
+    private LocalDate date;
+}
@@ -0,0 +1,14 @@
+package com.example.event_booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class HoldView {
+    private String holdId;
+    private Long eventId;
+    private Instant expiresAt; // confirm before this, or the seat goes back to the pool
+}
@@ -0,0 +1,8 @@
+package com.example.event_booking.exception;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(Long eventId, int bookedSeats, int requestedSeats) {
+        super("Already booked " + bookedSeats + " seat(s) for event with id: " + eventId
+                + "; cancel that booking to book " + requestedSeats);
+    }
+}
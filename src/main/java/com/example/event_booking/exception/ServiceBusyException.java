@@ -0,0 +1,7 @@
+package com.example.event_booking.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.event_booking.exception;
+
+public class SoldOutException extends RuntimeException {
+    public SoldOutException(Long eventId) {
+        super("No seats remaining for event with id: " + eventId);
+    }
+
+    public SoldOutException(Long eventId, int seats) {
+        super(seats == 1 ? "No seats remaining for event with id: " + eventId
+                : "Fewer than " + seats + " seats remaining for event with id: " + eventId);
+    }
+}
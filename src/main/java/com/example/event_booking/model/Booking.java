@@ -3,26 +3,39 @@ package com.example.event_booking.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings",
+        uniqueConstraints = @UniqueConstraint(name = "uq_bookings_user_event", columnNames = {"user_id", "event_id"}))
 public class Booking {
+    // pooled sequence (allocationSize ids per round-trip) so Hibernate can batch inserts;
+    // IDENTITY forces one INSERT per entity. MySQL emulates it with the booking_seq table (V3).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
+    // bookings.seats from V1 (DEFAULT 1): one row per purchase, capacity is counted in seats
+    @Column(nullable = false)
+    private int seats = 1;
+
     // Constructors
     public Booking() {}
 
     public Booking(User user, Event event) {
+        this(user, event, 1);
+    }
+
+    public Booking(User user, Event event, int seats) {
         this.user = user;
         this.event = event;
+        this.seats = seats;
     }
 
     // Getters & setters
@@ -49,4 +62,12 @@ public class Booking {
     public void setEvent(Event event) {
         this.event = event;
     }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public void setSeats(int seats) {
+        this.seats = seats;
+    }
 }
\ No newline at end of file
@@ -1,22 +1,39 @@
 package com.example.event_booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "events")
+// second-level cache: read on every booking, almost never written (region config in application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "events")
 public class Event {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // pooled sequence like Booking, so bulk imports can batch inserts (event_seq, V6)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+    @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private String description;
 
+    // column from V1; searchable and usable as a search filter
+    private String location;
+
     private LocalDate date;
 
     // column is 'capacity' in DB
     private Integer capacity;
 
+    // V10: set while EventPurger deletes the event's bookings, so a restart mid-purge keeps it closed
+    @JsonIgnore
+    private boolean purging;
+
     // getters/setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -27,9 +44,15 @@ public class Event {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
 
     public Integer getCapacity() { return capacity; }
     public void setCapacity(Integer capacity) { this.capacity = capacity; }
+
+    public boolean isPurging() { return purging; }
+    public void setPurging(boolean purging) { this.purging = purging; }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.example.event_booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "users")
+// second-level cache: read on every booking and login (region config in application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -11,6 +17,7 @@ public class User {
     @Column(nullable=false, unique=true, length=255)
     private String username;
 
+    @JsonIgnore // bcrypt hash, never serialized
     @Column(nullable=false, length=255)
     private String password;
 
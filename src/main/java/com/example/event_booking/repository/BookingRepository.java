@@ -1,17 +1,84 @@
 package com.example.event_booking.repository;
 
+import com.example.event_booking.dto.BookingView;
 import com.example.event_booking.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Read models for the booking list endpoints: one joined select, no entity graphs
+    String VIEW_SELECT = "select new com.example.event_booking.dto.BookingView(" +
+            "b.id, b.seats, u.id, u.username, e.id, e.title, e.date, e.capacity) " +
+            "from Booking b join b.user u join b.event e";
+
+    @Query(VIEW_SELECT + " order by b.id")
+    List<BookingView> findAllViews();
+
+    // Export: forward-only cursor over the read model, rows fetched EXPORT_FETCH_SIZE at a time.
+    // Must be consumed inside a transaction (and, on MySQL, with useCursorFetch=true on the URL).
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(VIEW_SELECT + " where b.id > :afterId order by b.id")
+    Stream<BookingView> streamViewsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(VIEW_SELECT + " where u.id = :userId order by b.id")
+    List<BookingView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query(VIEW_SELECT + " where u.username = :username order by b.id")
+    List<BookingView> findViewsByUsername(@Param("username") String username);
     List<Booking> findByUserId(Long userId);
     List<Booking> findByEventId(Long eventId);
 
+    // Existing booking for (user, event) with its associations, in one select
+    @Query("select b from Booking b join fetch b.user u join fetch b.event e where u.id = :userId and e.id = :eventId")
+    Optional<Booking> findExisting(@Param("userId") Long userId, @Param("eventId") Long eventId);
+
+    @Query("select b from Booking b join fetch b.user u join fetch b.event e where u.username = :username and e.id = :eventId")
+    Optional<Booking> findExistingByUsername(@Param("username") String username, @Param("eventId") Long eventId);
+
+    // bulk booking: every existing booking among these users and events (callers filter exact pairs)
+    @Query("select b from Booking b where b.user.id in :userIds and b.event.id in :eventIds")
+    List<Booking> findAmong(@Param("userIds") Collection<Long> userIds, @Param("eventIds") Collection<Long> eventIds);
+
     // Useful derived queries:
     long countByEventId(Long eventId);
+
+    // seats taken for an event (capacity is counted in seats, not rows)
+    @Query("select coalesce(sum(b.seats), 0) from Booking b where b.event.id = :eventId")
+    long sumSeatsByEventId(@Param("eventId") Long eventId);
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
 
-    void deleteByEventId(Long eventId);
+    // Set-based deletes: one statement each, no entities loaded into the persistence context
+    @Modifying
+    @Query("delete from Booking b where b.event.id = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    // 0 when a concurrent cancel already removed the row, so only one caller hands the seats back
+    @Modifying
+    @Query("delete from Booking b where b.id = :id")
+    int deleteOne(@Param("id") Long id);
+
+    // background purge of large events works through the bookings in id order, one chunk per transaction
+    @Query("select b.id from Booking b where b.event.id = :eventId order by b.id")
+    List<Long> findIdsByEventId(@Param("eventId") Long eventId, Limit limit);
+
+    @Modifying
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,7 +1,57 @@
 package com.example.event_booking.repository;
 
+import com.example.event_booking.dto.EventAvailability;
 import com.example.event_booking.model.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
-}
\ No newline at end of file
+
+    // Booked/remaining seats for every event in a single GROUP BY query (sum of bookings.seats)
+    @Query("select new com.example.event_booking.dto.EventAvailability(e.id, e.capacity, sum(b.seats)) " +
+            "from Event e left join Booking b on b.event = e group by e.id, e.capacity")
+    List<EventAvailability> findAvailability();
+
+    @Query("select new com.example.event_booking.dto.EventAvailability(e.id, e.capacity, sum(b.seats)) " +
+            "from Event e left join Booking b on b.event = e where e.id in :ids group by e.id, e.capacity")
+    List<EventAvailability> findAvailabilityByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages ordered by (date, id); both use idx_events_date_id (V4)
+    @Query("select e from Event e where e.date >= :from and e.date <= :to order by e.date, e.id")
+    List<Event> findFirstPage(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    @Query("select e from Event e where e.date >= :from and e.date <= :to " +
+            "and (e.date > :afterDate or (e.date = :afterDate and e.id > :afterId)) order by e.date, e.id")
+    List<Event> findPageAfter(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                              @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                              Limit limit);
+
+    // Search index load: forward-only cursor over all events, bypassing the second-level cache.
+    // Must be consumed inside a transaction; the caller detaches rows as it goes.
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select e from Event e order by e.id")
+    Stream<Event> streamAll();
+
+    // Background purge tombstone (events.purging, V10): set before the purge starts, gone with the row
+    @Modifying
+    @Query("update Event e set e.purging = true where e.id = :id")
+    int markPurging(@Param("id") Long id);
+
+    @Query("select e.id from Event e where e.purging = true")
+    List<Long> findPurgingIds();
+}
@@ -2,6 +2,8 @@ package com.example.event_booking.security;
 
 import com.example.event_booking.service.UserService;
 import com.example.event_booking.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,6 +21,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JwtAuthenticationFilter
@@ -26,6 +29,10 @@ import java.util.List;
  * - short-circuits static files and OPTIONS requests
  * - marks UserService @Lazy to help avoid circular dependency problems
  * - safely validates token and sets SecurityContext once
+ * - takes the role from PrincipalCache (DB hit on miss only), not from the token's role claim, so a
+ *   role change or a removed user takes effect without waiting for the token to expire
+ * - "jwt.filter" timer (tag outcome=authenticated|invalid|lookup_failed) covers token handling only,
+ *   not the rest of the chain
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -34,11 +41,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final PrincipalCache principalCache;
+    private final Timer authenticated;
+    private final Timer invalid;
+    private final Timer lookupFailed;
 
     // mark UserService lazy to help break circular deps if any
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, @Lazy UserService userService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, @Lazy UserService userService, PrincipalCache principalCache,
+                                   MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.principalCache = principalCache;
+        this.authenticated = filterTimer(meterRegistry, "authenticated");
+        this.invalid = filterTimer(meterRegistry, "invalid");
+        this.lookupFailed = filterTimer(meterRegistry, "lookup_failed");
+    }
+
+    private static Timer filterTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("jwt.filter").tag("outcome", outcome)
+                .description("Bearer token handling in the JWT filter, excluding the rest of the chain")
+                .register(registry);
     }
 
     @Override
@@ -85,22 +107,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        long start = System.nanoTime();
+        Timer timer = invalid;
         try {
-            // validate token and obtain username
-            String username = jwtUtil.validateAndGetUsername(token);
+            // validate token and obtain username + claims
+            JwtUtil.VerifiedToken verified = jwtUtil.validateToken(token);
+            String username = verified == null ? null : verified.subject();
             if (username != null) {
-                // Try to obtain user (this may hit DB). We catch and continue if it fails.
                 try {
-                    var user = userService.findByUsername(username);
+                    // The role claim is only what the user had at login; the current role comes from the
+                    // principal cache (invalidated by UserService.changeRole), and an unknown user fails here.
+                    String role = principalCache.roleFor(username, u -> userService.findByUsername(u).getRole());
 
-                    // Build authorities. If you store role in user.getRole(), use it; otherwise provide a default.
+                    // default to a generic authenticated role if neither source has one
                     List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                    if (user != null && user.getRole() != null) {
-                        authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
-                    } else {
-                        // default to a generic authenticated role (useful if JWT lacks role claim)
-                        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-                    }
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + (role != null ? role : "USER")));
 
                     // principal: you can put user object (not recommended for large entities) or username
                     var authToken = new UsernamePasswordAuthenticationToken(
@@ -110,8 +131,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
 
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    timer = authenticated;
                 } catch (Exception e) {
                     // If user lookup fails, we still treat token invalid for authorization purposes.
+                    timer = lookupFailed;
                     log.warn("Failed to load user '{}' during JWT processing: {}", username, e.getMessage());
                 }
             }
@@ -119,6 +142,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // token validation failed (expired / malformed / signature) — log and continue without authentication
             log.debug("Invalid/expired JWT: {}", ex.getMessage());
         }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
         chain.doFilter(req, res);
     }
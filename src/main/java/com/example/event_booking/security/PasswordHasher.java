@@ -0,0 +1,107 @@
+package com.example.event_booking.security;
+
+import com.example.event_booking.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on its own bounded pool (security.hashing.*) instead of the request threads.
+ *
+ * - pool size defaults to the number of cores: hashing is pure CPU, more threads only add queueing
+ * - the queue is bounded; when it is full new work is rejected at once with ServiceBusyException (503)
+ *   so a login storm degrades login only, not the booking path
+ * - "password.hash" timer (tag op=encode|matches), "password.hash.queue.depth" gauge and
+ *   "password.hash.rejected" counter are published to Micrometer
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder encoder,
+                          @Value("${security.hashing.threads:0}") int threads,
+                          @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash").tag("op", "encode")
+                .description("BCrypt time per operation, excluding queueing").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("op", "matches")
+                .description("BCrypt time per operation, excluding queueing").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hash requests turned away because the hashing queue was full").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", pool, p -> p.getQueue().size()).register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encode(CharSequence raw) {
+        return submit(encodeTimer, () -> encoder.encode(raw));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence raw, String encoded) {
+        return submit(matchesTimer, () -> encoder.matches(raw, encoded));
+    }
+
+    /**
+     * Whether the stored hash was made with a weaker cost than the configured one.
+     * Cheap (parses the hash prefix), so it runs on the caller's thread.
+     */
+    public boolean needsUpgrade(String encoded) {
+        return encoder.upgradeEncoding(encoded);
+    }
+
+    /**
+     * Waits for a hashing result on the calling thread, rethrowing the original
+     * exception (e.g. ServiceBusyException) rather than a CompletionException.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw ex;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(work), pool);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new ServiceBusyException("Too many sign-in requests, try again shortly"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
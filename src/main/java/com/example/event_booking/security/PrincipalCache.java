@@ -0,0 +1,38 @@
+package com.example.event_booking.security;
+
+import com.example.event_booking.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Username -> current role, consulted by JwtAuthenticationFilter on every authenticated request.
+ * Bounded and TTL-evicting; call invalidate() whenever a user's role changes. Other nodes pick the
+ * change up when their entry expires (security.principal-cache.ttl-ms).
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<String, String> roles;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-ms:300000}") long ttlMs) {
+        this.roles = new ExpiringCache<>(maxSize, ttlMs);
+    }
+
+    /**
+     * Cached role for the user, loading it with the given function on a miss.
+     */
+    public String roleFor(String username, Function<String, String> loader) {
+        return roles.getOrLoad(username, loader);
+    }
+
+    public void invalidate(String username) {
+        roles.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        roles.invalidateAll();
+    }
+}
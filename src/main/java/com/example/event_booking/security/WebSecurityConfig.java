@@ -1,5 +1,6 @@
 package com.example.event_booking.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -30,6 +31,9 @@ public class WebSecurityConfig {
                 // Add JWT filter before username/password filter
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatches (streaming/bulk responses) were authorized on the original request;
+                        // the JWT context isn't stored anywhere they could reload it from
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Permit static resources at common locations (css, js, images, favicon, etc.)
                         .requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll()
                         // Also allow these resource names (if you serve them at project root)
@@ -43,6 +47,10 @@ public class WebSecurityConfig {
                                 new AntPathRequestMatcher("/styles.css"),
                                 new AntPathRequestMatcher("/static/**")
                         ).permitAll()
+                        // Health is open; the Prometheus scrape and other actuator endpoints are admin-only
+                        // (metrics expose booking/auth rates and pool saturation)
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Public auth endpoints for login/register
                         .requestMatchers("/api/auth/**").permitAll()
                         // Public GET events
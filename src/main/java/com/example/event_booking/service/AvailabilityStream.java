@@ -0,0 +1,301 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.AvailabilityDelta;
+import com.example.event_booking.dto.EventAvailability;
+import com.example.event_booking.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events push of seat availability (GET /api/events/stream).
+ *
+ * - InventoryChangedEvents only mark an event dirty; nothing is sent per booking
+ * - every flush interval the dirty set is drained and one "availability" message
+ *   with the current remaining seats of each changed event goes to all subscribers
+ * - so each event produces at most one delta per interval, whatever the booking rate,
+ *   and the message is encoded once per flush, not once per subscriber
+ * - responses are written with Servlet non-blocking I/O: a write happens only while the
+ *   connection reports isReady(), so a slow client never parks a thread. The writes run on a small
+ *   fan-out pool (events.stream.send-threads) or on the container thread that reports the socket
+ *   writable again, never on the scheduler thread, and never two at once per subscriber
+ * - a subscriber whose connection hasn't taken its pending data for events.stream.send-timeout-ms,
+ *   or whose outbox overflows, is dropped and its async request completed; its browser reconnects
+ *   and starts from fresh state
+ */
+@Component
+public class AvailabilityStream {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStream.class);
+    private static final long HEARTBEAT_MS = 15_000;
+    private static final int MAX_QUEUED = 16;
+    private static final byte[] KEEP_ALIVE = ":keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final SeatInventory inventory;
+    private final EventRepository eventRepo;
+    private final ObjectMapper mapper;
+    private final long emitterTimeoutMs;
+    private final long sendTimeoutMs;
+    private final ExecutorService fanOut;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile long lastSend = System.currentTimeMillis();
+
+    public AvailabilityStream(SeatInventory inventory, EventRepository eventRepo, ObjectMapper mapper,
+                              @Value("${events.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${events.stream.send-timeout-ms:5000}") long sendTimeoutMs,
+                              @Value("${events.stream.send-threads:4}") int sendThreads) {
+        this.inventory = inventory;
+        this.eventRepo = eventRepo;
+        this.mapper = mapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(sendThreads, r -> {
+            Thread t = new Thread(r, "sse-fan-out-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Turn the request into an event stream: starts async processing and keeps the response open
+     * until the client goes away, events.stream.emitter-timeout-ms passes (browsers reconnect on
+     * their own) or the subscriber is dropped.
+     */
+    public void subscribe(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        AsyncContext async = request.startAsync();
+        async.setTimeout(emitterTimeoutMs);
+        ServletOutputStream out = response.getOutputStream();
+        Subscriber subscriber = new Subscriber(async, out);
+        async.addListener(subscriber);
+        // switches the stream to non-blocking mode; the container calls onWritePossible once it can take
+        // data, and that first call sends the headers. Only then may the fan-out pool write to it.
+        out.setWriteListener(subscriber);
+        subscribers.add(subscriber);
+    }
+
+    public int subscriberCount() { return subscribers.size(); }
+
+    // after commit for transactional publishers (deleteEvent), immediately otherwise
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent change) {
+        dirty.add(change.eventId());
+    }
+
+    @Scheduled(fixedDelayString = "${events.stream.flush-interval-ms:500}")
+    public void flush() {
+        if (subscribers.isEmpty()) {
+            dirty.clear();
+            return;
+        }
+        dropStuck();
+        if (dirty.isEmpty()) {
+            if (System.currentTimeMillis() - lastSend >= HEARTBEAT_MS) send(KEEP_ALIVE);
+            return;
+        }
+
+        List<Long> changed = new ArrayList<>(dirty);
+        dirty.removeAll(changed);
+
+        try {
+            String payload = mapper.writeValueAsString(deltasFor(changed));
+            send(("event:availability\ndata:" + payload + "\n\n").getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialize availability deltas: {}", ex.getMessage());
+        }
+    }
+
+    private List<AvailabilityDelta> deltasFor(List<Long> eventIds) {
+        List<AvailabilityDelta> deltas = new ArrayList<>(eventIds.size());
+        List<Long> cold = new ArrayList<>();
+        for (Long id : eventIds) {
+            int remaining = inventory.remaining(id);
+            if (remaining >= 0) deltas.add(new AvailabilityDelta(id, remaining, false));
+            else cold.add(id);
+        }
+        if (!cold.isEmpty()) {
+            // counters not loaded (or event deleted): read the rest in one query
+            Map<Long, EventAvailability> rows = new HashMap<>();
+            for (EventAvailability a : eventRepo.findAvailabilityByIds(cold)) rows.put(a.getEventId(), a);
+            for (Long id : cold) {
+                EventAvailability a = rows.get(id);
+                deltas.add(a != null ? new AvailabilityDelta(id, a.getRemaining(), false) : new AvailabilityDelta(id, 0, true));
+            }
+        }
+        return deltas;
+    }
+
+    // one encoded message, shared read-only by every subscriber's outbox
+    private void send(byte[] message) {
+        lastSend = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) subscriber.offer(message);
+    }
+
+    private void dropStuck() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.blockedSince;
+            if (since != 0 && now - since > sendTimeoutMs) {
+                log.debug("Dropping SSE subscriber whose connection took no data for {} ms", now - since);
+                subscriber.close();
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        fanOut.shutdownNow();
+        fanOut.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final Queue<byte[]> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        // drain requests not yet handled; whoever moves it off 0 writes, everyone else just adds to it
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // written but not yet flushed; only touched by the thread that is draining
+        private boolean unflushed = true;
+        // since when the connection has refused pending data, 0 while it keeps up
+        private volatile long blockedSince;
+
+        Subscriber(AsyncContext async, ServletOutputStream out) {
+            this.async = async;
+            this.out = out;
+        }
+
+        void offer(byte[] message) {
+            if (closed.get()) return;
+            if (queued.incrementAndGet() > MAX_QUEUED) {
+                // can't keep up with the flush interval
+                close();
+                return;
+            }
+            outbox.add(message);
+            try {
+                fanOut.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // shutting down
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            drain();
+        }
+
+        private void drain() {
+            if (drainRequests.getAndIncrement() != 0) return;
+            int requests = 1;
+            do {
+                try {
+                    writeWhileReady();
+                } catch (IOException | IllegalStateException ex) {
+                    // client went away
+                    close();
+                }
+                requests = drainRequests.addAndGet(-requests);
+            } while (requests != 0);
+        }
+
+        // never blocks: stops as soon as the container has to buffer, and onWritePossible picks it up again
+        private void writeWhileReady() throws IOException {
+            while (!closed.get()) {
+                if (!out.isReady()) {
+                    if (blockedSince == 0) blockedSince = System.currentTimeMillis();
+                    return;
+                }
+                if (unflushed) {
+                    unflushed = false;
+                    out.flush();
+                    continue;
+                }
+                byte[] next = outbox.poll();
+                if (next == null) {
+                    blockedSince = 0;
+                    return;
+                }
+                queued.decrementAndGet();
+                out.write(next);
+                unflushed = true;
+            }
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed.set(true);
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        // stop feeding this subscriber and end its response; the socket is let go without waiting
+        // for the data the client never read
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            subscribers.remove(this);
+            outbox.clear();
+            try {
+                async.complete();
+            } catch (IllegalStateException ex) {
+                // already completed by the container
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Inserts a list of new bookings in one JDBC-batched transaction; if that fails (e.g. one
+ * duplicate), each row is retried in its own transaction so a single bad row doesn't fail its
+ * neighbours. Shared by the bulk endpoint and the write-behind writer.
+ */
+@Component
+public class BookingBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBatchWriter.class);
+
+    /** Outcome of one row: saved is set on success, failure otherwise. */
+    @FunctionalInterface
+    public interface RowOutcome {
+        void accept(int index, Booking saved, RuntimeException failure);
+    }
+
+    private final BookingRepository bookingRepo;
+    private final TransactionTemplate tx;
+
+    public BookingBatchWriter(BookingRepository bookingRepo, PlatformTransactionManager txManager) {
+        this.bookingRepo = bookingRepo;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /** Save the bookings and report each row's outcome, in input order. */
+    public void save(List<Booking> bookings, RowOutcome outcome) {
+        if (bookings.isEmpty()) return;
+        try {
+            List<Booking> saved = tx.execute(status -> bookingRepo.saveAll(bookings));
+            for (int i = 0; i < bookings.size(); i++) outcome.accept(i, saved.get(i), null);
+        } catch (RuntimeException ex) {
+            log.warn("Booking batch of {} failed ({}), retrying rows individually", bookings.size(), ex.getMessage());
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking b = bookings.get(i);
+                try {
+                    // the failed flush may already have assigned an id; let the retry draw a fresh one
+                    b.setId(null);
+                    outcome.accept(i, tx.execute(status -> bookingRepo.save(b)), null);
+                } catch (RuntimeException rowEx) {
+                    outcome.accept(i, null, rowEx);
+                }
+            }
+        }
+    }
+}
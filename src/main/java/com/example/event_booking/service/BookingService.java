@@ -1,16 +1,48 @@
 package com.example.event_booking.service;
 
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.dto.BulkBookingRequest;
+import com.example.event_booking.dto.BulkResult;
 import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.exception.BookingConflictException;
+import com.example.event_booking.exception.SoldOutException;
 import com.example.event_booking.model.Booking;
 import com.example.event_booking.model.Event;
 import com.example.event_booking.model.User;
 import com.example.event_booking.repository.BookingRepository;
 import com.example.event_booking.repository.EventRepository;
 import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.util.StripedLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService {
@@ -18,35 +50,436 @@ public class BookingService {
     private final BookingRepository bookingRepo;
     private final EventRepository eventRepo;
     private final UserRepository userRepo;
+    private final SeatInventory inventory;
+    private final SeatLedger ledger;
+    private final TransactionTemplate tx;
+    private final BookingWriteBehind writeBehind;
+    private final BookingBatchWriter batchWriter;
+    private final long confirmTimeoutMs;
+    private final int maxSeats;
+
+    // serializes concurrent attempts for the same (user, event) inside this JVM
+    private final StripedLocks bookingLocks;
+
+    private final ApplicationEventPublisher events;
+
+    // booking.request timers (tags op, outcome), registered up front and keyed "op:outcome",
+    // and the booking.rejected counter (tag reason)
+    private final Map<String, Timer> requestTimers = new HashMap<>();
+    private final Counter soldOutRejections;
+    private final Counter duplicateRejections;
 
     @Autowired
-    public BookingService(BookingRepository bookingRepo, EventRepository eventRepo, UserRepository userRepo) {
+    public BookingService(BookingRepository bookingRepo, EventRepository eventRepo, UserRepository userRepo,
+                          SeatInventory inventory, SeatLedger ledger, PlatformTransactionManager txManager,
+                          BookingWriteBehind writeBehind, BookingBatchWriter batchWriter,
+                          ApplicationEventPublisher events,
+                          @Value("${booking.write-behind.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                          @Value("${booking.lock-stripes:1024}") int lockStripes,
+                          @Value("${booking.max-seats:10}") int maxSeats,
+                          MeterRegistry meterRegistry) {
         this.bookingRepo = bookingRepo;
         this.eventRepo = eventRepo;
         this.userRepo = userRepo;
+        this.inventory = inventory;
+        this.ledger = ledger;
+        this.tx = new TransactionTemplate(txManager);
+        this.writeBehind = writeBehind;
+        this.batchWriter = batchWriter;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxSeats = maxSeats;
+        this.bookingLocks = new StripedLocks(lockStripes);
+        this.events = events;
+        for (String op : List.of("book", "confirm_hold")) {
+            for (String outcome : List.of("ok", "sold_out", "conflict", "not_found", "busy", "error")) {
+                requestTimers.put(op + ":" + outcome, Timer.builder("booking.request")
+                        .tag("op", op)
+                        .tag("outcome", outcome)
+                        .description("Single booking calls, from lock acquisition to commit")
+                        .register(meterRegistry));
+            }
+        }
+        this.soldOutRejections = Counter.builder("booking.rejected").tag("reason", "sold_out")
+                .description("Booking attempts turned away by the seat inventory").register(meterRegistry);
+        this.duplicateRejections = Counter.builder("booking.rejected").tag("reason", "duplicate")
+                .description("Admitted seats handed back because the user already had a booking").register(meterRegistry);
     }
 
+    /** One-seat form of {@link #bookTicket(Long, Long, int)}. */
     public Booking bookTicket(Long userId, Long eventId) {
-        User user = userRepo.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User", userId));
-        Event event = eventRepo.findById(eventId).orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+        return bookTicket(userId, eventId, 1);
+    }
+
+    /**
+     * Book a number of seats as one booking row. Idempotent per (user, event): if the user
+     * already holds a booking for the event with the same seat count, that booking is returned
+     * instead of a new one; a different seat count is a conflict, not a silent repeat.
+     * The seats are admitted against the in-memory inventory first, so sold-out
+     * requests are rejected without any DB write; if the booking can't be
+     * persisted the seats are handed back.
+     * With booking.write-behind.enabled the insert goes through the batched
+     * writer and this call returns once that batch has committed.
+     * With booking.inventory.mode=cluster the seat is taken from events.remaining
+     * in the same transaction as the insert instead (see {@link SeatLedger}). With both
+     * cluster mode and write-behind on, the insert happens later on the writer thread, so the
+     * seats are reserved from events.remaining in a committed transaction of their own first
+     * and credited back if the row can't be written; the queued seats are published as this
+     * node's seat_claims meanwhile.
+     *
+     * @throws SoldOutException if fewer seats are left
+     * @throws BookingConflictException if the user's existing booking has a different seat count
+     * @throws IllegalArgumentException if seats is outside 1..booking.max-seats
+     */
+    public Booking bookTicket(Long userId, Long eventId, int seats) {
+        checkSeats(seats);
+        return timed("book", () -> {
+            Lock lock = bookingLocks.lockFor(List.of(userId, eventId));
+            lock.lock();
+            try {
+                Booking booking = bookingRepo.findExisting(userId, eventId)
+                        .orElseGet(() -> admitAndSave(eventId, seats,
+                                () -> userRepo.findById(userId).orElseThrow(() -> new ResourceNotFoundException("User", userId)),
+                                () -> bookingRepo.findExisting(userId, eventId)));
+                return sameSeats(booking, seats);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /** One-seat form of {@link #bookTicketForUsername(String, Long, int)}. */
+    public Booking bookTicketForUsername(String username, Long eventId) {
+        return bookTicketForUsername(username, eventId, 1);
+    }
+
+    /**
+     * Same as {@link #bookTicket(Long, Long, int)} for the authenticated user, keyed by username
+     * so that a retry costs a single query.
+     */
+    public Booking bookTicketForUsername(String username, Long eventId, int seats) {
+        checkSeats(seats);
+        return timed("book", () -> {
+            Lock lock = bookingLocks.lockFor(List.of(username, eventId));
+            lock.lock();
+            try {
+                Booking booking = bookingRepo.findExistingByUsername(username, eventId)
+                        .orElseGet(() -> admitAndSave(eventId, seats,
+                                () -> getUserByUsername(username),
+                                () -> bookingRepo.findExistingByUsername(username, eventId)));
+                return sameSeats(booking, seats);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Turn a seat already taken by a hold (see {@link SeatHolds}) into a booking.
+     * If the user already has a booking for the event the held seat is handed back;
+     * that booking is returned if it is for one seat too, like a repeat of
+     * {@link #bookTicket(Long, Long, int)}.
+     *
+     * @throws BookingConflictException if the existing booking is for more than one seat
+     */
+    public Booking confirmHeld(String username, Long eventId) {
+        return timed("confirm_hold", () -> {
+            Lock lock = bookingLocks.lockFor(List.of(username, eventId));
+            lock.lock();
+            try {
+                Optional<Booking> existing = bookingRepo.findExistingByUsername(username, eventId);
+                if (existing.isPresent()) {
+                    inventory.release(eventId, 1);
+                    return sameSeats(existing.get(), 1);
+                }
+                return sameSeats(saveAdmitted(eventId, 1, () -> getUserByUsername(username),
+                        () -> bookingRepo.findExistingByUsername(username, eventId)), 1);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // records booking.request{op, outcome} around one single-booking call, including lock wait
+    private Booking timed(String op, Supplier<Booking> work) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Booking booking = work.get();
+            outcome = "ok";
+            return booking;
+        } catch (SoldOutException ex) {
+            outcome = "sold_out";
+            throw ex;
+        } catch (BookingConflictException ex) {
+            outcome = "conflict";
+            throw ex;
+        } catch (ResourceNotFoundException ex) {
+            outcome = "not_found";
+            throw ex;
+        } catch (ServiceBusyException ex) {
+            outcome = "busy";
+            throw ex;
+        } finally {
+            requestTimers.get(op + ":" + outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // also covers a booking found after losing the insert race, which may be another request's seat count
+    private static Booking sameSeats(Booking booking, int seats) {
+        if (booking.getSeats() != seats) {
+            throw new BookingConflictException(booking.getEvent().getId(), booking.getSeats(), seats);
+        }
+        return booking;
+    }
+
+    private void checkSeats(int seats) {
+        if (seats < 1 || seats > maxSeats) {
+            throw new IllegalArgumentException("seats must be between 1 and " + maxSeats);
+        }
+    }
+
+    // cluster + write-behind: tryAcquire reserves through SeatLedger.reserve (own committed UPDATE) because the
+    // insert can't share a transaction with it; saveAdmitted's release() credits the seats back on failure
+    private Booking admitAndSave(Long eventId, int seats, Supplier<User> user, Supplier<Optional<Booking>> existing) {
+        if (ledger.isEnabled() && !writeBehind.isEnabled()) return saveInCluster(eventId, seats, user, existing);
+        if (!inventory.tryAcquire(eventId, seats)) {
+            soldOutRejections.increment();
+            throw new SoldOutException(eventId, seats);
+        }
+        return saveAdmitted(eventId, seats, user, existing);
+    }
+
+    // the seats are already taken from the inventory; persist them or hand them back
+    private Booking saveAdmitted(Long eventId, int seats, Supplier<User> user, Supplier<Optional<Booking>> existing) {
+        try {
+            Event event = eventRepo.findById(eventId).orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
 
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setEvent(event);
+            Booking booking = new Booking(user.get(), event, seats);
 
-        return bookingRepo.save(booking);
+            Booking saved = writeBehind.isEnabled() ? awaitWriteBehind(booking) : bookingRepo.save(booking);
+            events.publishEvent(new InventoryChangedEvent(eventId));
+            return saved;
+        } catch (ConfirmationPending ex) {
+            // still queued: the writer's outcome settles the seats, see awaitWriteBehind
+            throw ex;
+        } catch (DataIntegrityViolationException ex) {
+            // another node (or the other lock key) won the race on uq_bookings_user_event
+            inventory.release(eventId, seats);
+            duplicateRejections.increment();
+            return existing.get().orElseThrow(() -> ex);
+        } catch (RuntimeException ex) {
+            // reconcile: the seats were never persisted, return them to the pool
+            inventory.release(eventId, seats);
+            throw ex;
+        }
     }
 
+    // cluster mode: the conditional UPDATE of events.remaining and the insert commit or roll back together;
+    // seats of hot events come from this node's lease instead and are handed back to it on failure
+    private Booking saveInCluster(Long eventId, int seats, Supplier<User> user, Supplier<Optional<Booking>> existing) {
+        if (inventory.isClosed(eventId)) {
+            soldOutRejections.increment();
+            throw new SoldOutException(eventId);
+        }
+        boolean leased = ledger.takeLeased(eventId, seats);
+        try {
+            Booking saved = tx.execute(status -> {
+                Event event = eventRepo.findById(eventId).orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+                if (!leased && !ledger.take(eventId, seats)) {
+                    soldOutRejections.increment();
+                    throw new SoldOutException(eventId, seats);
+                }
+                return bookingRepo.save(new Booking(user.get(), event, seats));
+            });
+            events.publishEvent(new InventoryChangedEvent(eventId));
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            // duplicate (user, event): the UPDATE rolled back with the insert
+            if (leased) ledger.returnLeased(eventId, seats);
+            duplicateRejections.increment();
+            return existing.get().orElseThrow(() -> ex);
+        } catch (RuntimeException ex) {
+            if (leased) ledger.returnLeased(eventId, seats);
+            throw ex;
+        }
+    }
+
+    private Booking awaitWriteBehind(Booking booking) {
+        CompletableFuture<Booking> pending = writeBehind.submit(booking);
+        try {
+            return pending.get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Booking could not be saved", ex.getCause());
+        } catch (TimeoutException ex) {
+            settleLater(pending, booking);
+            throw new ConfirmationPending("Booking confirmation timed out");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            settleLater(pending, booking);
+            throw new ConfirmationPending("Interrupted while waiting for booking confirmation");
+        }
+    }
+
+    // outcome unknown while the row is queued: the counter already holds its seats, so leave it alone
+    // and hand them back only if the writer ends up failing the row
+    private void settleLater(CompletableFuture<Booking> pending, Booking booking) {
+        Long eventId = booking.getEvent().getId();
+        int seats = booking.getSeats();
+        pending.whenComplete((saved, failure) -> {
+            if (failure != null) inventory.release(eventId, seats);
+            events.publishEvent(new InventoryChangedEvent(eventId));
+        });
+    }
+
+    // a write-behind row the caller stopped waiting for; its seats must not be released by the caller
+    private static final class ConfirmationPending extends ServiceBusyException {
+        ConfirmationPending(String msg) {
+            super(msg);
+        }
+    }
+
+    /**
+     * Book one chunk of (userId, eventId, seats) items for the bulk endpoint with the rules of
+     * {@link #bookTicket(Long, Long, int)}: existing bookings with the same seat count are returned,
+     * ones with a different count are reported as conflicts, seats are admitted
+     * against the in-memory inventory. Users, events and existing bookings are read with
+     * one query each, and new bookings are inserted in one JDBC-batched transaction.
+     * If that batch fails (e.g. a concurrent duplicate) rows are retried one by one.
+     *
+     * @return one result per input item, in input order
+     */
+    public List<BulkResult> bookBulk(List<BulkBookingRequest> items) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> eventIds = new HashSet<>();
+        for (BulkBookingRequest item : items) {
+            if (item != null && item.getUserId() != null) userIds.add(item.getUserId());
+            if (item != null && item.getEventId() != null) eventIds.add(item.getEventId());
+        }
+        Map<Long, User> users = new HashMap<>();
+        userRepo.findAllById(userIds).forEach(u -> users.put(u.getId(), u));
+        Map<Long, Event> eventsById = new HashMap<>();
+        eventRepo.findAllById(eventIds).forEach(e -> eventsById.put(e.getId(), e));
+        Map<List<Long>, Long> existing = new HashMap<>();
+        Map<List<Long>, Integer> bookedSeats = new HashMap<>();
+        if (!userIds.isEmpty() && !eventIds.isEmpty()) {
+            for (Booking b : bookingRepo.findAmong(userIds, eventIds)) {
+                List<Long> key = List.of(b.getUser().getId(), b.getEvent().getId());
+                existing.put(key, b.getId());
+                bookedSeats.put(key, b.getSeats());
+            }
+        }
+
+        BulkResult[] results = new BulkResult[items.size()];
+        List<Booking> toSave = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BulkBookingRequest item = items.get(i);
+            if (item == null || item.getUserId() == null || item.getEventId() == null) {
+                results[i] = BulkResult.error("userId and eventId required");
+                continue;
+            }
+            User user = users.get(item.getUserId());
+            Event event = eventsById.get(item.getEventId());
+            int seats = item.getSeats() == null ? 1 : item.getSeats();
+            if (seats < 1 || seats > maxSeats) { results[i] = BulkResult.error("seats must be between 1 and " + maxSeats); continue; }
+            if (user == null) { results[i] = BulkResult.error("User not found with id: " + item.getUserId()); continue; }
+            if (event == null) { results[i] = BulkResult.error("Event not found with id: " + item.getEventId()); continue; }
+
+            List<Long> key = List.of(user.getId(), event.getId());
+            if (existing.containsKey(key)) {
+                int booked = bookedSeats.get(key);
+                if (booked != seats) {
+                    results[i] = BulkResult.conflict(new BookingConflictException(event.getId(), booked, seats).getMessage());
+                    continue;
+                }
+                Long existingId = existing.get(key);
+                // null: the same pair is pending earlier in this chunk; resolved once it is saved
+                if (existingId != null) results[i] = BulkResult.exists(existingId);
+                continue;
+            }
+            if (!inventory.tryAcquire(event.getId(), seats)) {
+                soldOutRejections.increment();
+                results[i] = BulkResult.soldOut(new SoldOutException(event.getId(), seats).getMessage());
+                continue;
+            }
+
+            existing.put(key, null); // a repeat of the pair later in this chunk reports the row saved here
+            bookedSeats.put(key, seats);
+            toSave.add(new Booking(user, event, seats));
+            positions.add(i);
+        }
+
+        List<Booking> saved = saveBatch(toSave);
+        Set<Long> touched = new HashSet<>();
+        for (int j = 0; j < positions.size(); j++) {
+            int i = positions.get(j);
+            Booking b = saved.get(j);
+            if (b != null) {
+                results[i] = BulkResult.created(b.getId());
+                existing.put(List.of(b.getUser().getId(), b.getEvent().getId()), b.getId());
+                touched.add(b.getEvent().getId());
+            } else {
+                inventory.release(toSave.get(j).getEvent().getId(), toSave.get(j).getSeats());
+                results[i] = BulkResult.error("booking could not be saved (already booked?)");
+            }
+        }
+        // repeats of a pair within the chunk: point at the row saved for the first occurrence
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                BulkBookingRequest item = items.get(i);
+                Long id = existing.get(List.of(item.getUserId(), item.getEventId()));
+                results[i] = id != null ? BulkResult.exists(id) : BulkResult.error("booking could not be saved (already booked?)");
+            }
+        }
+        touched.forEach(eventId -> events.publishEvent(new InventoryChangedEvent(eventId)));
+        return Arrays.asList(results);
+    }
+
+    // null where a row could not be saved
+    private List<Booking> saveBatch(List<Booking> bookings) {
+        Booking[] saved = new Booking[bookings.size()];
+        batchWriter.save(bookings, (i, booking, failure) -> saved[i] = booking);
+        return Arrays.asList(saved);
+    }
+
+    /**
+     * Delete a booking and hand its seats back. Concurrent cancels of the same booking all
+     * find the row, but only the one whose delete removed it releases the seats.
+     */
     public void cancelBooking(Long bookingId) {
-        bookingRepo.deleteById(bookingId);
+        bookingRepo.findById(bookingId).ifPresent(booking -> {
+            Long eventId = booking.getEvent().getId();
+            Integer deleted = tx.execute(status -> bookingRepo.deleteOne(bookingId));
+            if (deleted == null || deleted != 1) return;
+            inventory.release(eventId, booking.getSeats());
+            events.publishEvent(new InventoryChangedEvent(eventId));
+        });
+    }
+
+    public List<BookingView> getBookings() {
+        return bookingRepo.findAllViews();
+    }
+
+    /**
+     * Hand bookings with id > afterId to the sink in id order, straight off a
+     * forward-only cursor: only the current fetch window is ever in memory.
+     *
+     * @param limit max rows, or null for all of them
+     */
+    @Transactional(readOnly = true)
+    public void exportBookings(long afterId, Integer limit, Consumer<BookingView> sink) {
+        try (Stream<BookingView> rows = bookingRepo.streamViewsAfter(afterId, limit == null ? Limit.unlimited() : Limit.of(limit))) {
+            rows.forEach(sink);
+        }
     }
 
-    public List<Booking> getBookings() {
-        return bookingRepo.findAll();
+    public List<BookingView> getBookingsByUser(Long userId) {
+        return bookingRepo.findViewsByUserId(userId);
     }
 
-    public List<Booking> getBookingsByUser(Long userId) {
-        return bookingRepo.findByUserId(userId);
+    public List<BookingView> getBookingsByUsername(String username) {
+        return bookingRepo.findViewsByUsername(username);
     }
 
     public Booking getBookingById(Long id) {
@@ -0,0 +1,143 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.model.Booking;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind pipeline for admitted bookings (booking.write-behind.enabled).
+ *
+ * - callers enqueue into a bounded queue and get a future
+ * - a single writer drains the queue and persists each batch in one transaction
+ * - futures complete only after their batch commits, so callers still get a durable confirmation
+ * - if a batch fails, its rows are retried one by one so a single bad row doesn't fail its neighbours
+ *   (see {@link BookingBatchWriter})
+ * - seats of rows not yet written are reported to SeatLedger as this node's claims, so a crash with
+ *   rows still queued doesn't keep them off sale in cluster mode
+ */
+@Component
+public class BookingWriteBehind {
+
+    private final BookingBatchWriter batchWriter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<Pending> queue;
+    // event id -> seats of rows queued or being written
+    private final ConcurrentHashMap<Long, AtomicInteger> queuedSeats = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookingWriteBehind(BookingBatchWriter batchWriter, SeatLedger ledger,
+                              @Value("${booking.write-behind.enabled:false}") boolean enabled,
+                              @Value("${booking.write-behind.batch-size:50}") int batchSize,
+                              @Value("${booking.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${booking.write-behind.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.batchWriter = batchWriter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (enabled) ledger.addClaimSource(this::queuedSeats);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Queue a booking for persistence. The returned future completes with the
+     * saved booking once its batch has committed, or exceptionally if it could not be written.
+     *
+     * @throws ServiceBusyException if the queue stays full for longer than the offer timeout
+     */
+    public CompletableFuture<Booking> submit(Booking booking) {
+        Pending pending = new Pending(booking, new CompletableFuture<>());
+        // counted before the offer: the writer may finish the row before offer() returns
+        countQueued(booking, booking.getSeats());
+        try {
+            if (!queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                countQueued(booking, -booking.getSeats());
+                throw new ServiceBusyException("Booking queue is full, try again shortly");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            countQueued(booking, -booking.getSeats());
+            throw new ServiceBusyException("Interrupted while queueing booking");
+        }
+        return pending.done;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        writer = new Thread(this::run, "booking-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) return;
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        // flush whatever was still queued so no confirmed caller is left hanging
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) flush(rest);
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                break;
+            }
+            // whatever piled up while the previous batch was committing goes into this one
+            queue.drainTo(batch, batchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        batchWriter.save(batch.stream().map(Pending::booking).toList(), (i, saved, failure) -> {
+            Pending p = batch.get(i);
+            countQueued(p.booking, -p.booking.getSeats());
+            if (failure == null) p.done.complete(saved);
+            else p.done.completeExceptionally(failure);
+        });
+    }
+
+    private void countQueued(Booking booking, int seats) {
+        queuedSeats.compute(booking.getEvent().getId(), (id, n) -> {
+            if (n == null) n = new AtomicInteger();
+            return n.addAndGet(seats) <= 0 ? null : n;
+        });
+    }
+
+    private Map<Long, Integer> queuedSeats() {
+        Map<Long, Integer> seats = new HashMap<>();
+        queuedSeats.forEach((eventId, n) -> seats.put(eventId, n.get()));
+        return seats;
+    }
+
+    private record Pending(Booking booking, CompletableFuture<Booking> done) {}
+}
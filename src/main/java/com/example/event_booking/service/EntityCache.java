@@ -0,0 +1,49 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Explicit eviction from the Hibernate second-level cache ("events" and "users" regions).
+ *
+ * - writes made through Hibernate already refresh or evict their rows; the services call
+ *   these as well so a row deleted or changed here is never served from this node's cache
+ *   afterwards, whatever path removed it
+ * - inside a transaction the eviction runs after commit: evicting earlier would drop the
+ *   soft lock Hibernate holds on the entry and let a concurrent reader cache the old row
+ * - cached queries are invalidated per table by Hibernate and need no call here
+ * - hit/miss counts per region are the hibernate.second.level.cache.* meters
+ */
+@Component
+public class EntityCache {
+
+    private final Cache cache;
+
+    public EntityCache(EntityManagerFactory emf) {
+        this.cache = emf.getCache();
+    }
+
+    public void evictEvent(Long eventId) {
+        if (eventId != null) afterCommit(() -> cache.evict(Event.class, eventId));
+    }
+
+    public void evictUser(Long userId) {
+        if (userId != null) afterCommit(() -> cache.evict(User.class, userId));
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { eviction.run(); }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.repository.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-serialized full event list behind GET /api/events.
+ *
+ * - a version counter is bumped whenever the catalogue changes (invalidate())
+ * - the JSON bytes and their ETag are built once per version and shared by all readers
+ * - the ETag is a digest of the bytes, so it is stable across restarts and nodes
+ * - snapshots older than events.catalogue.refresh-ms are rebuilt anyway, to pick up
+ *   changes made through other nodes
+ */
+@Component
+public class EventCatalogue {
+
+    public record Snapshot(long version, byte[] json, String etag, long builtAt) {}
+
+    private final EventRepository repo;
+    private final ObjectMapper mapper;
+    private final long refreshMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot current;
+
+    public EventCatalogue(EventRepository repo, ObjectMapper mapper,
+                          @Value("${events.catalogue.refresh-ms:60000}") long refreshMs) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.refreshMs = refreshMs;
+    }
+
+    public long version() { return version.get(); }
+
+    /**
+     * Current snapshot, rebuilt only when the version moved or the snapshot got too old.
+     */
+    public Snapshot snapshot() {
+        Snapshot s = current;
+        if (isFresh(s)) return s;
+        synchronized (this) {
+            s = current;
+            if (isFresh(s)) return s;
+            // read the version before the rows: a concurrent bump makes this snapshot stale, never the reverse
+            long v = version.get();
+            byte[] json = serialize();
+            s = new Snapshot(v, json, etagOf(json), System.currentTimeMillis());
+            current = s;
+            return s;
+        }
+    }
+
+    /**
+     * Mark the catalogue as changed. Inside a transaction the version is bumped
+     * again after commit, so a snapshot built from pre-commit data is not kept.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return s != null && s.version() == version.get() && System.currentTimeMillis() - s.builtAt() < refreshMs;
+    }
+
+    private byte[] serialize() {
+        try {
+            return mapper.writeValueAsBytes(repo.findAll());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize event catalogue", ex);
+        }
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            // strong validator: quoted, no W/ prefix
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background deletion of events with too many bookings to delete in one transaction.
+ *
+ * - bookings are deleted events.purge.chunk-size at a time, each chunk in its own short
+ *   transaction, with events.purge.pause-ms between chunks so the booking path keeps its connections
+ * - the event row (and with it its events.purging flag, V10) goes last; purges a restart interrupted
+ *   are closed for booking again and resumed once the application is ready
+ * - one purge runs at a time; asking again for an event that is already queued is a no-op
+ */
+@Component
+public class EventPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPurger.class);
+
+    private final EventRepository eventRepo;
+    private final BookingRepository bookingRepo;
+    private final SeatInventory inventory;
+    private final EventCatalogue catalogue;
+    private final EntityCache entityCache;
+    private final EventSearchIndex searchIndex;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final int chunkSize;
+    private final long pauseMs;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "event-purger");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public EventPurger(EventRepository eventRepo, BookingRepository bookingRepo, SeatInventory inventory,
+                       EventCatalogue catalogue, EntityCache entityCache, EventSearchIndex searchIndex,
+                       ApplicationEventPublisher events,
+                       PlatformTransactionManager txManager,
+                       @Value("${events.purge.chunk-size:5000}") int chunkSize,
+                       @Value("${events.purge.pause-ms:20}") long pauseMs) {
+        this.eventRepo = eventRepo;
+        this.bookingRepo = bookingRepo;
+        this.inventory = inventory;
+        this.catalogue = catalogue;
+        this.entityCache = entityCache;
+        this.searchIndex = searchIndex;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * Queue an event for deletion. The caller should have closed its seat inventory already.
+     *
+     * @return false if the event was already queued
+     */
+    public boolean submit(Long eventId) {
+        if (!pending.add(eventId)) return false;
+        worker.execute(() -> {
+            try {
+                purge(eventId);
+            } catch (RuntimeException ex) {
+                // leave the event closed; deleting it again retries from where this stopped
+                log.error("Purge of event {} failed", eventId, ex);
+            } finally {
+                pending.remove(eventId);
+            }
+        });
+        return true;
+    }
+
+    public boolean isPending(Long eventId) { return pending.contains(eventId); }
+
+    /**
+     * Pick up purges that were running (or queued) when the application stopped: their events
+     * are still flagged events.purging. Every node resumes them; concurrent purges of the same
+     * event only race on deleting the same rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        for (Long eventId : eventRepo.findPurgingIds()) {
+            inventory.close(eventId);
+            searchIndex.remove(eventId);
+            if (submit(eventId)) log.info("Resuming purge of event {}", eventId);
+        }
+    }
+
+    private void purge(Long eventId) {
+        long deleted = 0;
+        while (true) {
+            Integer n = tx.execute(status -> {
+                List<Long> ids = bookingRepo.findIdsByEventId(eventId, Limit.of(chunkSize));
+                return ids.isEmpty() ? 0 : bookingRepo.deleteByIdIn(ids);
+            });
+            if (n == null || n == 0) break;
+            deleted += n;
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        tx.executeWithoutResult(status -> eventRepo.deleteById(eventId));
+        entityCache.evictEvent(eventId);
+        searchIndex.remove(eventId);
+        inventory.deleted(eventId);
+        catalogue.invalidate();
+        events.publishEvent(new InventoryChangedEvent(eventId));
+        log.info("Purged event {} and {} bookings", eventId, deleted);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        worker.shutdownNow();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
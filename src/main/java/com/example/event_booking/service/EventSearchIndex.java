@@ -0,0 +1,381 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.EventSearchResult;
+import com.example.event_booking.dto.EventSuggestion;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.repository.EventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over the event catalogue, behind GET /api/events/search and /suggest.
+ *
+ * - title, location and description are tokenized (lower case, accents folded); each term maps
+ *   to the events containing it, weighted by field (title 3, location 2, description 1)
+ * - every query word must match; the last one also matches as a prefix, so partial input works.
+ *   Matches are ranked by field weight times idf, then by date
+ * - typeahead reads a sorted map of every word-start suffix of each upcoming event's title: one range
+ *   seek plus at most events.search.suggest-scan entries, whatever the size of the catalogue
+ * - kept current by EventService/EventPurger (after commit), and rebuilt from a DB cursor at
+ *   startup and every events.search.rebuild-ms, which also picks up changes made on other nodes
+ * - writers are serialized; readers never lock
+ */
+@Component
+public class EventSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    // a word matched only as a prefix counts for less than the whole word
+    private static final float PREFIX_FACTOR = 0.5f;
+    // title suffixes indexed per event, so a very long title can't flood the typeahead map
+    private static final int MAX_TITLE_WORDS = 16;
+    private static final int FACET_SIZE = 20;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Doc> BY_DATE =
+            Comparator.comparing(Doc::date, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(Doc::id);
+
+    // an indexed copy of the event (detached, never handed to JPA) and its term weights
+    private record Doc(Event event, Map<String, Float> weights, String locationKey) {
+        Long id() { return event.getId(); }
+        LocalDate date() { return event.getDate(); }
+    }
+
+    private static final class Segment {
+        final Map<Long, Doc> docs = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+        final ConcurrentSkipListSet<Doc> byDate = new ConcurrentSkipListSet<>(BY_DATE);
+        // "<word-start suffix of the title>\0<id>" -> doc; upcoming events only (as of put time)
+        final ConcurrentSkipListMap<String, Doc> titles = new ConcurrentSkipListMap<>();
+
+        void put(Event event) {
+            remove(event.getId());
+            Doc doc = docOf(event);
+            docs.put(doc.id(), doc);
+            for (String term : doc.weights().keySet()) {
+                postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(doc.id());
+            }
+            byDate.add(doc);
+            if (!isPast(doc)) {
+                for (String key : titleKeys(doc)) titles.put(key, doc);
+            }
+        }
+
+        void remove(Long id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) return;
+            for (String term : doc.weights().keySet()) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) continue;
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(term, ids);
+            }
+            byDate.remove(doc);
+            for (String key : titleKeys(doc)) titles.remove(key);
+        }
+    }
+
+    private final EventRepository repo;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxResults;
+    private final int maxPrefixTerms;
+    private final int suggestScan;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Segment current = new Segment();
+    // updates made while a rebuild is loading; replayed onto the new segment before it is swapped in
+    private List<Consumer<Segment>> replay;
+
+    public EventSearchIndex(EventRepository repo, PlatformTransactionManager txManager,
+                            @Value("${events.search.max-results:100}") int maxResults,
+                            @Value("${events.search.max-prefix-terms:256}") int maxPrefixTerms,
+                            @Value("${events.search.suggest-scan:200}") int suggestScan) {
+        this.repo = repo;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxResults = maxResults;
+        this.maxPrefixTerms = maxPrefixTerms;
+        this.suggestScan = suggestScan;
+    }
+
+    public int size() { return current.docs.size(); }
+
+    /**
+     * Matching events, best first. A blank query returns the filtered events by date.
+     *
+     * @param location exact location match, ignoring case and accents; null for any
+     * @param limit    page size, clamped to events.search.max-results
+     */
+    public EventSearchResult search(String query, LocalDate from, LocalDate to, String location, Integer limit) {
+        Segment seg = current;
+        int size = Math.max(1, Math.min(limit != null ? limit : 20, maxResults));
+        List<String> words = tokenize(query);
+        String locationKey = location == null || location.isBlank() ? null : String.join(" ", tokenize(location));
+
+        Map<Long, Float> scores = words.isEmpty() ? null : match(seg, words);
+        Collection<Doc> candidates = scores == null ? seg.byDate : scores.keySet().stream()
+                .map(seg.docs::get).filter(d -> d != null).toList();
+
+        List<Doc> matches = new ArrayList<>();
+        for (Doc d : candidates) {
+            if (from != null && (d.date() == null || d.date().isBefore(from))) continue;
+            if (to != null && (d.date() == null || d.date().isAfter(to))) continue;
+            if (locationKey != null && !locationKey.equals(d.locationKey())) continue;
+            matches.add(d);
+        }
+
+        if (scores != null) {
+            Comparator<Doc> byScore = Comparator.comparing(d -> -scores.get(d.id()));
+            matches.sort(byScore.thenComparing(BY_DATE));
+        }
+        List<Event> items = matches.stream().limit(size).map(Doc::event).toList();
+        return new EventSearchResult(items, matches.size(), facets(matches));
+    }
+
+    /**
+     * Typeahead: upcoming events whose title has a word starting with the given text
+     * (several words match consecutive title words). Titles starting with it come first.
+     */
+    public List<EventSuggestion> suggest(String prefix, Integer limit) {
+        String key = String.join(" ", tokenize(prefix));
+        if (key.isEmpty()) return List.of();
+        int size = Math.max(1, Math.min(limit != null ? limit : 10, maxResults));
+        LocalDate today = LocalDate.now();
+
+        Map<Long, Doc> found = new LinkedHashMap<>();
+        int scanned = 0;
+        for (Doc d : current.titles.subMap(key, key + Character.MAX_VALUE).values()) {
+            if (found.size() >= size) break;
+            // past events never enter titles; only those that went past since the last rebuild are left to skip,
+            // and they don't use up the scan budget
+            if (d.date() != null && d.date().isBefore(today)) continue;
+            if (++scanned > suggestScan) break;
+            found.putIfAbsent(d.id(), d);
+        }
+
+        Comparator<Doc> titleStart = Comparator.comparing(d -> !String.join(" ", tokenize(d.event().getTitle())).startsWith(key));
+        return found.values().stream().sorted(titleStart.thenComparing(BY_DATE))
+                .map(d -> new EventSuggestion(d.id(), d.event().getTitle(), d.date()))
+                .toList();
+    }
+
+    /** Add or replace one event. Inside a transaction this happens after commit. */
+    public void index(Event event) {
+        Event copy = copyOf(event);
+        afterCommit(seg -> seg.put(copy));
+    }
+
+    /** Add or replace several events. Inside a transaction this happens after commit. */
+    public void indexAll(Collection<Event> events) {
+        List<Event> copies = events.stream().map(EventSearchIndex::copyOf).toList();
+        afterCommit(seg -> copies.forEach(seg::put));
+    }
+
+    /** Drop an event. Inside a transaction this happens after commit. */
+    public void remove(Long eventId) {
+        afterCommit(seg -> seg.remove(eventId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reload the whole index from a forward-only cursor over the events table and swap it in.
+     * Searches keep using the old index until then; updates made meanwhile are replayed onto the new one.
+     */
+    @Scheduled(initialDelayString = "${events.search.rebuild-ms:600000}", fixedDelayString = "${events.search.rebuild-ms:600000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Segment fresh = new Segment();
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Event> rows = repo.streamAll()) {
+                    rows.forEach(e -> {
+                        if (!e.isPurging()) fresh.put(copyOf(e)); // closed, on its way out
+                        entityManager.detach(e); // keep the persistence context from growing with the catalogue
+                    });
+                }
+            });
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                replay = null;
+            }
+            log.error("Search index rebuild failed; keeping the current index", ex);
+            return;
+        }
+        synchronized (this) {
+            replay.forEach(op -> op.accept(fresh));
+            replay = null;
+            current = fresh;
+        }
+        log.info("Search index rebuilt: {} events in {} ms", fresh.docs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void afterCommit(Consumer<Segment> op) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(op);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { apply(op); }
+        });
+    }
+
+    private synchronized void apply(Consumer<Segment> op) {
+        op.accept(current);
+        if (replay != null) replay.add(op);
+    }
+
+    // AND over the words; returns id -> score for the events every word matched
+    private Map<Long, Float> match(Segment seg, List<String> words) {
+        double n = Math.max(1, seg.docs.size());
+        Map<Long, Float> scores = null;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Map<String, Set<Long>> terms = i == words.size() - 1 ? prefixTerms(seg, word) : exactTerm(seg, word);
+
+            Map<Long, Float> wordScores = new HashMap<>();
+            for (Map.Entry<String, Set<Long>> term : terms.entrySet()) {
+                float idf = (float) Math.log(1 + n / Math.max(1, term.getValue().size()));
+                float factor = term.getKey().equals(word) ? 1f : PREFIX_FACTOR;
+                for (Long id : term.getValue()) {
+                    if (scores != null && !scores.containsKey(id)) continue;
+                    Doc d = seg.docs.get(id);
+                    Float weight = d == null ? null : d.weights().get(term.getKey());
+                    // several completions of one prefix in the same event count once, at the best
+                    if (weight != null) wordScores.merge(id, weight * idf * factor, Math::max);
+                }
+            }
+            if (scores != null) {
+                Map<Long, Float> previous = scores;
+                wordScores.replaceAll((id, s) -> s + previous.get(id));
+            }
+            scores = wordScores;
+            if (scores.isEmpty()) break;
+        }
+        return scores;
+    }
+
+    private static Map<String, Set<Long>> exactTerm(Segment seg, String word) {
+        Set<Long> ids = seg.postings.get(word);
+        return ids == null ? Map.of() : Map.of(word, ids);
+    }
+
+    // the word itself sorts first, then up to events.search.max-prefix-terms completions
+    private Map<String, Set<Long>> prefixTerms(Segment seg, String word) {
+        Map<String, Set<Long>> terms = new LinkedHashMap<>();
+        for (Map.Entry<String, Set<Long>> e : seg.postings.subMap(word, word + Character.MAX_VALUE).entrySet()) {
+            if (terms.size() >= maxPrefixTerms) break;
+            terms.put(e.getKey(), e.getValue());
+        }
+        return terms;
+    }
+
+    private static Map<String, Map<String, Long>> facets(List<Doc> matches) {
+        Map<String, Long> locations = new HashMap<>();
+        Map<String, Long> months = new HashMap<>();
+        for (Doc d : matches) {
+            String location = d.event().getLocation();
+            if (location != null && !location.isBlank()) locations.merge(location.trim(), 1L, Long::sum);
+            if (d.date() != null) months.merge(YearMonth.from(d.date()).toString(), 1L, Long::sum);
+        }
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("location", top(locations));
+        facets.put("month", top(months));
+        return facets;
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FACET_SIZE)
+                .forEach(e -> top.put(e.getKey(), e.getValue()));
+        return top;
+    }
+
+    private static boolean isPast(Doc doc) {
+        return doc.date() != null && doc.date().isBefore(LocalDate.now());
+    }
+
+    private static Doc docOf(Event event) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String t : tokenize(event.getTitle())) weights.merge(t, TITLE_WEIGHT, Float::sum);
+        List<String> location = tokenize(event.getLocation());
+        for (String t : location) weights.merge(t, LOCATION_WEIGHT, Float::sum);
+        for (String t : tokenize(event.getDescription())) weights.merge(t, DESCRIPTION_WEIGHT, Float::sum);
+        return new Doc(event, Map.copyOf(weights), location.isEmpty() ? null : String.join(" ", location));
+    }
+
+    private static List<String> titleKeys(Doc doc) {
+        List<String> words = tokenize(doc.event().getTitle());
+        int n = Math.min(words.size(), MAX_TITLE_WORDS);
+        List<String> keys = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) keys.add(String.join(" ", words.subList(i, words.size())) + '\0' + doc.id());
+        return keys;
+    }
+
+    // lower case, accents folded, split on anything that isn't a letter or digit
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String t : NON_WORD.split(folded)) {
+            if (!t.isEmpty()) tokens.add(t);
+        }
+        return tokens;
+    }
+
+    private static Event copyOf(Event e) {
+        Event copy = new Event();
+        copy.setId(e.getId());
+        copy.setTitle(e.getTitle());
+        copy.setDescription(e.getDescription());
+        copy.setLocation(e.getLocation());
+        copy.setDate(e.getDate());
+        copy.setCapacity(e.getCapacity());
+        return copy;
+    }
+}
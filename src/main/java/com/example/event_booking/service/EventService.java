@@ -1,12 +1,25 @@
 package com.example.event_booking.service;
 
+import com.example.event_booking.dto.BulkResult;
+import com.example.event_booking.dto.EventAvailability;
+import com.example.event_booking.dto.EventPage;
+import com.example.event_booking.dto.EventSearchResult;
+import com.example.event_booking.dto.EventSuggestion;
 import com.example.event_booking.exception.ResourceNotFoundException;
 import com.example.event_booking.model.Event;
 import com.example.event_booking.repository.BookingRepository;
 import com.example.event_booking.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 
@@ -14,19 +27,141 @@ import java.util.Objects;
 public class EventService {
     private final EventRepository repo;
     private final BookingRepository bookingRepo;
+    private final SeatInventory inventory;
+    private final int maxPageSize;
+    private final ApplicationEventPublisher events;
+    private final EventCatalogue catalogue;
+    private final EventPurger purger;
+    private final long asyncDeleteThreshold;
+    private final EntityCache entityCache;
+    private final EventSearchIndex searchIndex;
 
-    public EventService(EventRepository repo, BookingRepository bookingRepo) {
+    // far-future bound for open-ended ranges (LocalDate.MAX doesn't fit DB date columns)
+    private static final LocalDate NO_UPPER_BOUND = LocalDate.of(9999, 12, 31);
+
+    public EventService(EventRepository repo, BookingRepository bookingRepo, SeatInventory inventory,
+                        @Value("${events.page.max-size:100}") int maxPageSize, ApplicationEventPublisher events,
+                        EventCatalogue catalogue, EventPurger purger,
+                        @Value("${events.delete.async-threshold:10000}") long asyncDeleteThreshold,
+                        EntityCache entityCache, EventSearchIndex searchIndex) {
         this.repo = repo;
         this.bookingRepo = bookingRepo;
+        this.inventory = inventory;
+        this.maxPageSize = maxPageSize;
+        this.events = events;
+        this.catalogue = catalogue;
+        this.purger = purger;
+        this.asyncDeleteThreshold = asyncDeleteThreshold;
+        this.entityCache = entityCache;
+        this.searchIndex = searchIndex;
     }
 
     public List<Event> listEvents() { return repo.findAll(); }
 
+    /** Full event list as cached JSON bytes plus ETag; see {@link EventCatalogue}. */
+    public EventCatalogue.Snapshot getCatalogue() { return catalogue.snapshot(); }
+
+    public List<EventAvailability> getAvailability() { return repo.findAvailability(); }
+
+    /** Full-text search with date/location filters; see {@link EventSearchIndex}. */
+    public EventSearchResult search(String query, LocalDate from, LocalDate to, String location, Integer limit) {
+        return searchIndex.search(query, from, to, location, limit);
+    }
+
+    /** Typeahead over upcoming event titles; see {@link EventSearchIndex}. */
+    public List<EventSuggestion> suggest(String prefix, Integer limit) {
+        return searchIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * One keyset page of events ordered by (date, id).
+     * from defaults to today (past events are skipped), to is open-ended by default,
+     * and limit is clamped to events.page.max-size.
+     *
+     * @param cursor opaque nextCursor from the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public EventPage listEventsPage(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        LocalDate lower = from != null ? from : LocalDate.now();
+        LocalDate upper = to != null ? to : NO_UPPER_BOUND;
+        int size = Math.max(1, Math.min(limit != null ? limit : 20, maxPageSize));
+
+        // fetch one extra row to know whether another page exists
+        Limit fetch = Limit.of(size + 1);
+        List<Event> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.findFirstPage(lower, upper, fetch);
+        } else {
+            String[] key = decodeCursor(cursor);
+            rows = repo.findPageAfter(lower, upper, LocalDate.parse(key[0]), Long.valueOf(key[1]), fetch);
+        }
+
+        if (rows.size() <= size) return new EventPage(rows, null);
+        List<Event> page = rows.subList(0, size);
+        return new EventPage(page, encodeCursor(page.get(size - 1)));
+    }
+
+    private static String encodeCursor(Event last) {
+        String key = last.getDate() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split(":", 2);
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("invalid cursor");
+        }
+    }
+
     /**
      * Create and persist a new Event.
      * Validates required fields and throws IllegalArgumentException on bad input.
      */
     public Event createEvent(Event event) {
+        Event saved = repo.save(validated(event));
+        catalogue.invalidate();
+        searchIndex.index(saved);
+        events.publishEvent(new InventoryChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Validate and insert one chunk of a bulk import in a single transaction,
+     * with the same rules as {@link #createEvent(Event)}. Valid events are
+     * JDBC-batched; invalid ones are reported and skipped.
+     *
+     * @return one result per input event, in input order
+     */
+    @Transactional
+    public List<BulkResult> importEvents(List<Event> chunk) {
+        List<BulkResult> results = new ArrayList<>(chunk.size());
+        List<Event> valid = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                valid.add(validated(chunk.get(i)));
+                positions.add(i);
+                results.add(null);
+            } catch (IllegalArgumentException ex) {
+                results.add(BulkResult.error(ex.getMessage()));
+            }
+        }
+        List<Event> saved = repo.saveAll(valid);
+        for (int i = 0; i < saved.size(); i++) results.set(positions.get(i), BulkResult.created(saved.get(i).getId()));
+        if (!saved.isEmpty()) {
+            catalogue.invalidate();
+            searchIndex.indexAll(saved);
+        }
+        return results;
+    }
+
+    // validation shared by createEvent and importEvents; returns a fresh entity with normalized fields
+    private static Event validated(Event event) {
         if (event == null) throw new IllegalArgumentException("event body required");
         if (event.getTitle() == null || event.getTitle().trim().isEmpty()) throw new IllegalArgumentException("title required");
         if (event.getDate() == null) throw new IllegalArgumentException("date required");
@@ -35,27 +170,48 @@ public class EventService {
         Event e = new Event();
         e.setTitle(event.getTitle().trim());
         e.setDescription(event.getDescription());
+        e.setLocation(event.getLocation() == null || event.getLocation().isBlank() ? null : event.getLocation().trim());
         e.setDate(event.getDate());
         e.setCapacity(event.getCapacity());
-        return repo.save(e);
+        return e;
     }
 
     /**
      * Delete an event and any bookings that reference it.
-     * This runs inside a transaction to ensure consistency.
+     * Up to events.delete.async-threshold bookings are removed with one set-based delete in
+     * this transaction; larger events are closed for booking and handed to {@link EventPurger}.
      *
      * @param eventId id of the event to delete
+     * @return true if the event is gone, false if it is being purged in the background
      * @throws ResourceNotFoundException if event doesn't exist
      */
     @Transactional
-    public void deleteEvent(Long eventId) {
+    public boolean deleteEvent(Long eventId) {
         // verify event exists; throw 404 otherwise
         Event ev = repo.findById(eventId).orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
 
-        // delete bookings for this event first
+        if (purger.isPending(eventId) || bookingRepo.countByEventId(eventId) > asyncDeleteThreshold) {
+            // stop new bookings first so the purge isn't chasing inserts; the flag keeps it closed across restarts
+            repo.markPurging(eventId);
+            inventory.close(eventId);
+            searchIndex.remove(eventId);
+            purger.submit(eventId);
+            return false;
+        }
+
+        // delete bookings for this event first, in one statement
         bookingRepo.deleteByEventId(eventId);
 
         // then delete event record
-        repo.deleteById(eventId);
+        repo.delete(ev);
+        entityCache.evictEvent(eventId);
+        searchIndex.remove(eventId);
+
+        // forget the in-memory seat counter (and the closed mark of an earlier, failed purge);
+        // a late booking will fail the lookup instead
+        inventory.deleted(eventId);
+        catalogue.invalidate();
+        events.publishEvent(new InventoryChangedEvent(eventId));
+        return true;
     }
 }
@@ -0,0 +1,53 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the response for each (user, Idempotency-Key) so a retried
+ * booking request is answered from memory instead of the DB.
+ *
+ * - the request a key was first used for (event, seats) is stored with the response; a retry must match it
+ * - cancelling a booking forgets the keys that answered with it, so the next retry books again
+ */
+@Component
+public class IdempotencyStore {
+
+    private final ExpiringCache<String, Replay> responses;
+    // booking id -> responses key, for forget()
+    private final ExpiringCache<Long, String> keysByBooking;
+
+    public IdempotencyStore(@Value("${booking.idempotency.max-size:100000}") int maxSize,
+                            @Value("${booking.idempotency.ttl-ms:600000}") long ttlMs) {
+        this.responses = new ExpiringCache<>(maxSize, ttlMs);
+        this.keysByBooking = new ExpiringCache<>(maxSize, ttlMs);
+    }
+
+    public Replay get(String username, String key) {
+        return responses.get(username + "\n" + key);
+    }
+
+    public void put(String username, String key, Long eventId, int seats, BookingView response) {
+        String cacheKey = username + "\n" + key;
+        responses.put(cacheKey, new Replay(eventId, seats, response));
+        if (response.getId() != null) keysByBooking.put(response.getId(), cacheKey);
+    }
+
+    /** Drop the stored response of a booking that no longer exists. */
+    public void forget(Long bookingId) {
+        String cacheKey = keysByBooking.get(bookingId);
+        if (cacheKey == null) return;
+        keysByBooking.invalidate(bookingId);
+        responses.invalidate(cacheKey);
+    }
+
+    /** A stored response and the request it answered. */
+    public record Replay(Long eventId, int seats, BookingView response) {
+
+        public boolean matches(Long eventId, int seats) {
+            return this.eventId.equals(eventId) && this.seats == seats;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.event_booking.service;
+
+/**
+ * Published whenever an event's seat availability may have changed
+ * (booking created or cancelled, event created or deleted).
+ */
+public record InventoryChangedEvent(Long eventId) {}
@@ -0,0 +1,191 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.HoldView;
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.exception.SoldOutException;
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.util.HashedTimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Temporary seat holds: hold -> confirm | release | expire (booking.hold.*).
+ *
+ * - a hold takes a seat from SeatInventory immediately but lives only in memory;
+ *   nothing is written until confirm, which persists it through BookingService
+ * - each hold gets one entry on a hashed timer wheel; expiry is a tick of that wheel,
+ *   not a scheduled task per hold, so cost stays O(1) per hold however many there are
+ * - seats of expired holds are handed back in one batch per tick, one release and
+ *   one availability notification per event
+ * - one live hold per (user, event); holding again returns the existing one
+ *
+ * Holds are per JVM. On shutdown their seats are handed back; if the JVM dies instead, local mode
+ * frees them at re-warm and cluster mode through the node's stale seat claims (see {@link SeatLedger}).
+ */
+@Component
+public class SeatHolds {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHolds.class);
+
+    private record Hold(String id, String username, Long eventId, Instant expiresAt) {}
+
+    private final SeatInventory inventory;
+    private final BookingService bookingService;
+    private final ApplicationEventPublisher events;
+    private final long ttlMs;
+    private final int maxActive;
+
+    private final HashedTimerWheel<Hold> wheel;
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HashedTimerWheel<Hold>.Timeout> timeouts = new ConcurrentHashMap<>();
+    // "username:eventId" -> hold id
+    private final ConcurrentHashMap<String, String> byUserEvent = new ConcurrentHashMap<>();
+    private final Counter expiredCounter;
+
+    public SeatHolds(SeatInventory inventory, BookingService bookingService, ApplicationEventPublisher events,
+                     @Value("${booking.hold.ttl-ms:600000}") long ttlMs,
+                     @Value("${booking.hold.tick-ms:1000}") long tickMs,
+                     @Value("${booking.hold.wheel-size:1024}") int wheelSize,
+                     @Value("${booking.hold.max-active:500000}") int maxActive,
+                     MeterRegistry meterRegistry) {
+        this.inventory = inventory;
+        this.bookingService = bookingService;
+        this.events = events;
+        this.ttlMs = ttlMs;
+        this.maxActive = maxActive;
+        this.wheel = new HashedTimerWheel<>(tickMs, wheelSize);
+
+        Gauge.builder("booking.holds.active", holds, Map::size).register(meterRegistry);
+        this.expiredCounter = Counter.builder("booking.holds.expired").register(meterRegistry);
+    }
+
+    /**
+     * Hold one seat for the user.
+     *
+     * @throws SoldOutException if no seat is free
+     * @throws ServiceBusyException if booking.hold.max-active holds are already live
+     */
+    public HoldView hold(String username, Long eventId) {
+        String userKey = username + ":" + eventId;
+        String existingId = byUserEvent.get(userKey);
+        Hold existing = existingId == null ? null : holds.get(existingId);
+        if (existing != null) return view(existing);
+
+        if (holds.size() >= maxActive) throw new ServiceBusyException("Too many seats on hold, try again shortly");
+        if (!inventory.tryHold(eventId, 1)) throw new SoldOutException(eventId);
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), username, eventId, Instant.now().plusMillis(ttlMs));
+        holds.put(hold.id(), hold);
+        while (true) {
+            String other = byUserEvent.putIfAbsent(userKey, hold.id());
+            if (other == null) break;
+            Hold winner = holds.get(other);
+            if (winner != null) {
+                // a concurrent request by the same user won; give our seat back
+                holds.remove(hold.id());
+                inventory.releaseHold(eventId, 1);
+                return view(winner);
+            }
+            // stale mapping of an ended hold: swap it only if nobody else has meanwhile, else look again
+            if (byUserEvent.replace(userKey, other, hold.id())) break;
+        }
+        timeouts.put(hold.id(), wheel.schedule(hold, ttlMs));
+        events.publishEvent(new InventoryChangedEvent(eventId));
+        return view(hold);
+    }
+
+    /**
+     * Persist the hold as a booking.
+     *
+     * @throws ResourceNotFoundException if the hold doesn't exist, belongs to someone else or already expired
+     */
+    public Booking confirm(String username, String holdId) {
+        Hold hold = take(username, holdId);
+        inventory.confirmHold(hold.eventId(), 1);
+        return bookingService.confirmHeld(username, hold.eventId());
+    }
+
+    /**
+     * Give the seat back before the hold expires.
+     *
+     * @throws ResourceNotFoundException if the hold doesn't exist, belongs to someone else or already expired
+     */
+    public void release(String username, String holdId) {
+        Hold hold = take(username, holdId);
+        inventory.releaseHold(hold.eventId(), 1);
+        events.publishEvent(new InventoryChangedEvent(hold.eventId()));
+    }
+
+    public int activeCount() { return holds.size(); }
+
+    @Scheduled(fixedDelayString = "${booking.hold.tick-ms:1000}")
+    public void expire() {
+        List<Hold> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) return;
+
+        Map<Long, Integer> seatsByEvent = new HashMap<>();
+        for (Hold hold : expired) {
+            // confirm/release remove the hold first; only holds still in the map are ours to expire
+            if (!holds.remove(hold.id(), hold)) continue;
+            timeouts.remove(hold.id());
+            byUserEvent.remove(hold.username() + ":" + hold.eventId(), hold.id());
+            seatsByEvent.merge(hold.eventId(), 1, Integer::sum);
+        }
+        seatsByEvent.forEach((eventId, seats) -> {
+            inventory.releaseHold(eventId, seats);
+            events.publishEvent(new InventoryChangedEvent(eventId));
+        });
+        expiredCounter.increment(seatsByEvent.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @PreDestroy
+    void releaseAll() {
+        Map<Long, Integer> seatsByEvent = new HashMap<>();
+        for (Hold hold : holds.values()) {
+            if (!holds.remove(hold.id(), hold)) continue;
+            HashedTimerWheel<Hold>.Timeout timeout = timeouts.remove(hold.id());
+            if (timeout != null) timeout.cancel();
+            byUserEvent.remove(hold.username() + ":" + hold.eventId(), hold.id());
+            seatsByEvent.merge(hold.eventId(), 1, Integer::sum);
+        }
+        seatsByEvent.forEach((eventId, seats) -> {
+            try {
+                inventory.releaseHold(eventId, seats);
+            } catch (RuntimeException ex) {
+                log.warn("Could not release {} held seats of event {} on shutdown: {}", seats, eventId, ex.getMessage());
+            }
+        });
+    }
+
+    // remove a live hold owned by this user; exactly one of confirm/release/expire/releaseAll gets it
+    private Hold take(String username, String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || !hold.username().equals(username) || !holds.remove(holdId, hold)) {
+            throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+        }
+        HashedTimerWheel<Hold>.Timeout timeout = timeouts.remove(holdId);
+        if (timeout != null) timeout.cancel();
+        byUserEvent.remove(username + ":" + hold.eventId(), holdId);
+        return hold;
+    }
+
+    private static HoldView view(Hold hold) {
+        return new HoldView(hold.id(), hold.eventId(), hold.expiresAt());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory seat counters, one per event.
+ *
+ * - a counter is warmed once from capacity - seats already booked in the DB
+ * - admission is a CAS loop on the counter, so sold-out requests never reach JDBC
+ * - callers must release() seats whose booking could not be persisted
+ * - seats on hold (not yet a booking row) are tracked separately so a re-warm doesn't count them as free
+ * - a closed event (being purged) admits nobody until it is gone ({@link #deleted})
+ * - with booking.inventory.mode=cluster the counters are not used: seats are taken from and
+ *   given back to events.remaining through {@link SeatLedger}, shared by all nodes
+ */
+@Component
+public class SeatInventory {
+
+    private final ConcurrentHashMap<Long, AtomicInteger> remaining = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> onHold = new ConcurrentHashMap<>();
+    private final Set<Long> closed = ConcurrentHashMap.newKeySet();
+    private final EventRepository eventRepo;
+    private final BookingRepository bookingRepo;
+    private final SeatLedger ledger;
+
+    public SeatInventory(EventRepository eventRepo, BookingRepository bookingRepo, SeatLedger ledger) {
+        this.eventRepo = eventRepo;
+        this.bookingRepo = bookingRepo;
+        this.ledger = ledger;
+        // held seats are taken from events.remaining in cluster mode; publish them as this node's claims
+        ledger.addClaimSource(this::heldSeats);
+    }
+
+    /**
+     * Try to take the given number of seats for an event.
+     * Returns false (without touching the DB once warmed) if not enough seats remain.
+     *
+     * @throws ResourceNotFoundException if the event doesn't exist
+     */
+    public boolean tryAcquire(Long eventId, int seats) {
+        if (closed.contains(eventId)) return false;
+        if (ledger.isEnabled()) return ledger.reserve(eventId, seats);
+        AtomicInteger counter = counterFor(eventId);
+        while (true) {
+            int current = counter.get();
+            if (current < seats) return false;
+            if (counter.compareAndSet(current, current - seats)) return true;
+        }
+    }
+
+    /**
+     * Give seats back, e.g. after a cancelled booking or a failed DB write.
+     * No-op if the event's counter is not loaded; it will be re-warmed from the DB.
+     */
+    public void release(Long eventId, int seats) {
+        if (ledger.isEnabled()) {
+            ledger.unreserve(eventId, seats);
+            return;
+        }
+        AtomicInteger counter = remaining.get(eventId);
+        if (counter != null) counter.addAndGet(seats);
+    }
+
+    /**
+     * Take seats for a temporary hold. They stay out of the pool until
+     * {@link #releaseHold} (expired or abandoned) or {@link #confirmHold} (now a booking row).
+     */
+    public boolean tryHold(Long eventId, int seats) {
+        if (!tryAcquire(eventId, seats)) return false;
+        onHold.computeIfAbsent(eventId, id -> new AtomicInteger()).addAndGet(seats);
+        return true;
+    }
+
+    public void releaseHold(Long eventId, int seats) {
+        unmarkHeld(eventId, seats);
+        release(eventId, seats);
+    }
+
+    public void confirmHold(Long eventId, int seats) {
+        unmarkHeld(eventId, seats);
+    }
+
+    /**
+     * Seats left for an event, or -1 if its counter is not loaded yet (always in cluster mode).
+     */
+    public int remaining(Long eventId) {
+        if (ledger.isEnabled()) return -1;
+        AtomicInteger counter = remaining.get(eventId);
+        return counter == null ? -1 : counter.get();
+    }
+
+    /**
+     * Seats left for an event, warming its counter from the DB on first use.
+     *
+     * @throws ResourceNotFoundException if the event doesn't exist
+     */
+    public int available(Long eventId) {
+        if (ledger.isEnabled()) return ledger.available(eventId);
+        return counterFor(eventId).get();
+    }
+
+    /**
+     * True only if the counter is loaded and at zero; never touches the DB.
+     */
+    public boolean isSoldOut(Long eventId) {
+        if (closed.contains(eventId)) return true;
+        return ledger.isEnabled() ? ledger.isSoldOut(eventId) : remaining(eventId) == 0;
+    }
+
+    public boolean isClosed(Long eventId) {
+        return closed.contains(eventId);
+    }
+
+    /**
+     * Stop admitting bookings and holds for an event that is about to be deleted,
+     * without waiting for its bookings to be purged. Only {@link #deleted} undoes it.
+     * The mark is kept in this JVM; in cluster mode events.remaining is zeroed as well,
+     * so other nodes see the event as sold out too. Restarts see events.purging (set by
+     * EventService) instead: a counter warmed for a purging event closes it again, and
+     * EventPurger re-closes every purging event when it resumes them at startup.
+     */
+    public void close(Long eventId) {
+        closed.add(eventId);
+        ledger.close(eventId);
+    }
+
+    /**
+     * The event row is gone: forget its counter and its closed mark.
+     * Called once the delete (or the background purge) has finished.
+     */
+    public void deleted(Long eventId) {
+        remaining.remove(eventId);
+        onHold.remove(eventId);
+        closed.remove(eventId);
+        ledger.drop(eventId);
+    }
+
+    private AtomicInteger counterFor(Long eventId) {
+        AtomicInteger counter = remaining.get(eventId);
+        if (counter != null) return counter;
+        // computeIfAbsent blocks concurrent first callers for the same event until the warm-up query returns
+        return remaining.computeIfAbsent(eventId, this::warm);
+    }
+
+    private AtomicInteger warm(Long eventId) {
+        Event event = eventRepo.findById(eventId).orElseThrow(() -> new ResourceNotFoundException("Event", eventId));
+        if (event.isPurging()) {
+            closed.add(eventId);
+            return new AtomicInteger(0);
+        }
+        int capacity = event.getCapacity() == null ? 0 : event.getCapacity();
+        long booked = bookingRepo.sumSeatsByEventId(eventId);
+        AtomicInteger held = onHold.get(eventId);
+        return new AtomicInteger((int) Math.max(capacity - booked - (held == null ? 0 : held.get()), 0));
+    }
+
+    private Map<Long, Integer> heldSeats() {
+        Map<Long, Integer> held = new HashMap<>();
+        onHold.forEach((eventId, seats) -> held.put(eventId, seats.get()));
+        return held;
+    }
+
+    private void unmarkHeld(Long eventId, int seats) {
+        onHold.computeIfPresent(eventId, (id, held) -> held.addAndGet(-seats) <= 0 ? null : held);
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Cross-node seat accounting on events.remaining (V7), used when booking.inventory.mode=cluster.
+ *
+ * - a seat is taken with one conditional UPDATE (remaining >= n), so replicas can't oversell;
+ *   for single bookings it runs in the same transaction as the insert (see BookingService)
+ * - events taking booking.cluster.hot-threshold or more seats per lease window on this node are
+ *   served from a node-local lease: a block of booking.cluster.lease-size seats taken with one
+ *   committed UPDATE, then handed out without touching the DB
+ * - unused leased seats go back to the DB when the event cools down, is closed or deleted, and on
+ *   shutdown
+ * - seats this node took but hasn't turned into booking rows (leases, holds, queued write-behind rows)
+ *   are published to seat_claims (V9) every lease window. Claims a node stopped refreshing for
+ *   booking.cluster.claim-ttl-ms (it crashed) are credited back by whichever node notices first,
+ *   capped at the seats that bookings, events.remaining and the live claims don't account for
+ * - SQL goes through JdbcTemplate, not JPA, so counter updates don't evict the Event cache region
+ *
+ * events.remaining is only maintained in this mode. NULL rows are counted from bookings on first use.
+ */
+@Component
+public class SeatLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLedger.class);
+
+    // The take and the first count of events.remaining, with named parameters (:seats, :eventId) so that
+    // ReactiveBookingService runs exactly the same statements through R2DBC
+    public static final String DECREMENT = "UPDATE events SET remaining = remaining - :seats " +
+            "WHERE id = :eventId AND remaining >= :seats";
+    public static final String COUNT_FROM_BOOKINGS = "UPDATE events SET remaining = " +
+            "GREATEST(COALESCE(capacity, 0) - (SELECT COALESCE(SUM(b.seats), 0) FROM bookings b WHERE b.event_id = :eventId), 0) " +
+            "WHERE id = :eventId AND remaining IS NULL";
+
+    private static final String INCREMENT = "UPDATE events SET remaining = remaining + ? WHERE id = ? AND remaining IS NOT NULL";
+    private static final String SELECT_REMAINING = "SELECT remaining FROM events WHERE id = ?";
+
+    private static final String DELETE_OWN_CLAIMS = "DELETE FROM seat_claims WHERE node_id = ?";
+    private static final String INSERT_CLAIM = "INSERT INTO seat_claims (node_id, event_id, seats, updated_at) VALUES (?, ?, ?, ?)";
+    private static final String STALE_CLAIM_EVENTS = "SELECT DISTINCT event_id FROM seat_claims WHERE updated_at < ?";
+    private static final String LOCK_EVENT = "SELECT capacity, remaining FROM events WHERE id = ? FOR UPDATE";
+    private static final String SUM_BOOKED = "SELECT COALESCE(SUM(seats), 0) FROM bookings WHERE event_id = ?";
+    private static final String SUM_STALE_CLAIMS = "SELECT COALESCE(SUM(seats), 0) FROM seat_claims WHERE event_id = ? AND updated_at < ?";
+    private static final String SUM_LIVE_CLAIMS = "SELECT COALESCE(SUM(seats), 0) FROM seat_claims WHERE event_id = ? AND updated_at >= ?";
+    private static final String DELETE_STALE_CLAIMS = "DELETE FROM seat_claims WHERE event_id = ? AND updated_at < ?";
+    private static final String CLOSE = "UPDATE events SET remaining = 0 WHERE id = ?";
+
+    // seats this node has already taken from events.remaining; guarded by its monitor
+    private static final class Lease {
+        int seats;
+        boolean returned; // flushed back to the DB and dropped from the map; don't add to it
+    }
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate ownTx;
+    private final boolean enabled;
+    private final int leaseSize;
+    private final int hotThreshold;
+    private final long soldOutTtlMs;
+    private final String nodeId;
+    private final long claimTtlMs;
+
+    private final ConcurrentHashMap<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> takesThisWindow = new ConcurrentHashMap<>();
+    private volatile Set<Long> hot = Set.of();
+    // event id -> time until which it is reported sold out without asking the DB
+    private final ConcurrentHashMap<Long, Long> soldOutUntil = new ConcurrentHashMap<>();
+    // event id -> seats, for the off-DB seats other components hold (holds, queued write-behind rows)
+    private final List<Supplier<Map<Long, Integer>>> claimSources = new CopyOnWriteArrayList<>();
+    private volatile boolean claimsPublished;
+
+    public SeatLedger(JdbcTemplate jdbc, PlatformTransactionManager txManager,
+                      @Value("${booking.inventory.mode:local}") String mode,
+                      @Value("${booking.cluster.lease-size:20}") int leaseSize,
+                      @Value("${booking.cluster.hot-threshold:20}") int hotThreshold,
+                      @Value("${booking.cluster.sold-out-ttl-ms:1000}") long soldOutTtlMs,
+                      @Value("${booking.cluster.node-id:}") String nodeId,
+                      @Value("${booking.cluster.claim-ttl-ms:30000}") long claimTtlMs) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.ownTx = new TransactionTemplate(txManager);
+        this.ownTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = "cluster".equalsIgnoreCase(mode);
+        this.leaseSize = Math.max(1, leaseSize);
+        this.hotThreshold = Math.max(1, hotThreshold);
+        this.soldOutTtlMs = soldOutTtlMs;
+        // a restarted node gets a new id, so the claims of its previous run are reclaimed like a crashed node's
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.claimTtlMs = claimTtlMs;
+    }
+
+    /** Register seats taken from events.remaining that another component keeps off the DB (event id -> seats). */
+    public void addClaimSource(Supplier<Map<Long, Integer>> source) {
+        claimSources.add(source);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Take seats from this node's lease if the event is hot, refilling it first if needed.
+     * Must be called outside a transaction (a refill commits on its own).
+     *
+     * @return false if the event isn't hot or no leased seats are left; use {@link #take} then
+     */
+    public boolean takeLeased(Long eventId, int seats) {
+        takesThisWindow.computeIfAbsent(eventId, id -> new AtomicInteger()).addAndGet(seats);
+        if (!hot.contains(eventId)) return false;
+
+        Lease lease = leases.computeIfAbsent(eventId, id -> new Lease());
+        synchronized (lease) {
+            if (lease.returned) return false;
+            if (lease.seats < seats) lease.seats += grab(eventId, Math.max(leaseSize, seats - lease.seats));
+            if (lease.seats < seats) return false;
+            lease.seats -= seats;
+            return true;
+        }
+    }
+
+    /** Put seats from {@link #takeLeased} back, e.g. after the booking transaction rolled back. */
+    public void returnLeased(Long eventId, int seats) {
+        Lease lease = leases.get(eventId);
+        if (lease != null) {
+            synchronized (lease) {
+                if (!lease.returned) {
+                    lease.seats += seats;
+                    return;
+                }
+            }
+        }
+        ownTx.executeWithoutResult(status -> credit(eventId, seats));
+    }
+
+    /**
+     * Take seats with one conditional UPDATE in the caller's transaction.
+     *
+     * @return false if fewer seats remain
+     * @throws ResourceNotFoundException if the event doesn't exist
+     */
+    public boolean take(Long eventId, int seats) {
+        if (decrement(eventId, seats)) {
+            return true;
+        }
+        if (remainingInDb(eventId) == 0) soldOutUntil.put(eventId, System.currentTimeMillis() + soldOutTtlMs);
+        return false;
+    }
+
+    /**
+     * Take seats and commit at once, for callers that persist later or not at all
+     * (holds, bulk chunks, write-behind). Undo with {@link #unreserve}.
+     */
+    public boolean reserve(Long eventId, int seats) {
+        if (takeLeased(eventId, seats)) return true;
+        return Boolean.TRUE.equals(ownTx.execute(status -> take(eventId, seats)));
+    }
+
+    /** Give back seats from {@link #reserve} or of a cancelled booking. */
+    public void unreserve(Long eventId, int seats) {
+        soldOutUntil.remove(eventId);
+        returnLeased(eventId, seats);
+    }
+
+    /** Add seats back in the caller's transaction. */
+    public void credit(Long eventId, int seats) {
+        soldOutUntil.remove(eventId);
+        jdbc.update(INCREMENT, seats, eventId);
+    }
+
+    /**
+     * Seats left in the DB plus this node's unused lease. Other nodes' leases aren't visible,
+     * so this can be lower than what is actually bookable.
+     *
+     * @throws ResourceNotFoundException if the event doesn't exist
+     */
+    public int available(Long eventId) {
+        int inDb = remainingInDb(eventId);
+        Lease lease = leases.get(eventId);
+        if (lease == null) return inDb;
+        synchronized (lease) {
+            return inDb + (lease.returned ? 0 : lease.seats);
+        }
+    }
+
+    /** True if a recent take found nothing left; never touches the DB. */
+    public boolean isSoldOut(Long eventId) {
+        Long until = soldOutUntil.get(eventId);
+        if (until == null) return false;
+        if (until > System.currentTimeMillis()) return true;
+        soldOutUntil.remove(eventId, until);
+        return false;
+    }
+
+    /** Return this node's lease for an event that is being deleted, or whose counter is reset. */
+    public void drop(Long eventId) {
+        soldOutUntil.remove(eventId);
+        returnLease(eventId);
+    }
+
+    /**
+     * Take every seat off sale for an event that is being purged: this node's lease is returned
+     * and events.remaining is zeroed, which every node and the reactive API see.
+     */
+    public void close(Long eventId) {
+        drop(eventId);
+        if (enabled) ownTx.executeWithoutResult(status -> jdbc.update(CLOSE, eventId));
+    }
+
+    /**
+     * Once per lease window: events that took enough seats become hot, leases of events
+     * that cooled down go back to the DB.
+     */
+    @Scheduled(fixedDelayString = "${booking.cluster.lease-window-ms:1000}")
+    public void rebalance() {
+        if (!enabled) return;
+        Set<Long> nowHot = ConcurrentHashMap.newKeySet();
+        for (Map.Entry<Long, AtomicInteger> e : takesThisWindow.entrySet()) {
+            if (e.getValue().getAndSet(0) >= hotThreshold) nowHot.add(e.getKey());
+            else takesThisWindow.remove(e.getKey(), e.getValue());
+        }
+        hot = nowHot;
+        for (Long eventId : leases.keySet()) {
+            if (!nowHot.contains(eventId)) returnLease(eventId);
+        }
+        try {
+            publishClaims();
+            reclaimStale();
+        } catch (RuntimeException ex) {
+            log.warn("Could not publish or reclaim seat claims: {}", ex.getMessage());
+        }
+    }
+
+    // runs after SeatHolds has released its holds (it depends on this bean, so it is destroyed first)
+    @PreDestroy
+    void returnAll() {
+        if (!enabled) return;
+        hot = Set.of();
+        for (Long eventId : leases.keySet()) {
+            try {
+                returnLease(eventId);
+            } catch (RuntimeException ex) {
+                log.warn("Could not return leased seats of event {}: {}", eventId, ex.getMessage());
+            }
+        }
+        try {
+            publishClaims();
+        } catch (RuntimeException ex) {
+            log.warn("Could not update seat claims on shutdown: {}", ex.getMessage());
+        }
+    }
+
+    // this node's leases plus the registered sources, rewritten as one set of rows
+    private void publishClaims() {
+        Map<Long, Integer> claims = new HashMap<>();
+        for (Supplier<Map<Long, Integer>> source : claimSources) {
+            source.get().forEach((eventId, seats) -> claims.merge(eventId, seats, Integer::sum));
+        }
+        leases.forEach((eventId, lease) -> {
+            synchronized (lease) {
+                if (!lease.returned && lease.seats > 0) claims.merge(eventId, lease.seats, Integer::sum);
+            }
+        });
+        claims.values().removeIf(seats -> seats <= 0);
+        if (claims.isEmpty() && !claimsPublished) return;
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(claims.size());
+        claims.forEach((eventId, seats) -> rows.add(new Object[]{nodeId, eventId, seats, now}));
+        ownTx.executeWithoutResult(status -> {
+            jdbc.update(DELETE_OWN_CLAIMS, nodeId);
+            if (!rows.isEmpty()) jdbc.batchUpdate(INSERT_CLAIM, rows);
+        });
+        claimsPublished = !rows.isEmpty();
+    }
+
+    private void reclaimStale() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - claimTtlMs);
+        for (Long eventId : jdbc.queryForList(STALE_CLAIM_EVENTS, Long.class, cutoff)) {
+            Integer credited = ownTx.execute(status -> reclaim(eventId, cutoff));
+            if (credited != null && credited > 0) {
+                log.info("Credited {} seats of event {} claimed by a node that stopped refreshing its claims", credited, eventId);
+            }
+        }
+    }
+
+    // Under the event row's lock, so takes and credits wait. A claim can be one window out of date
+    // (a held seat may have become a booking since), so never credit more than nobody accounts for.
+    private int reclaim(Long eventId, Timestamp cutoff) {
+        List<Map<String, Object>> event = jdbc.queryForList(LOCK_EVENT, eventId);
+        int credit = 0;
+        if (!event.isEmpty() && event.get(0).get("remaining") != null) {
+            Number capacity = (Number) event.get(0).get("capacity");
+            long remaining = ((Number) event.get(0).get("remaining")).longValue();
+            long booked = jdbc.queryForObject(SUM_BOOKED, Long.class, eventId);
+            long stale = jdbc.queryForObject(SUM_STALE_CLAIMS, Long.class, eventId, cutoff);
+            long live = jdbc.queryForObject(SUM_LIVE_CLAIMS, Long.class, eventId, cutoff);
+            long unaccounted = (capacity == null ? 0 : capacity.longValue()) - booked - remaining - live;
+            credit = (int) Math.max(0, Math.min(stale, unaccounted));
+            if (credit > 0) credit(eventId, credit);
+        }
+        jdbc.update(DELETE_STALE_CLAIMS, eventId, cutoff);
+        return credit;
+    }
+
+    private void returnLease(Long eventId) {
+        Lease lease = leases.remove(eventId);
+        if (lease == null) return;
+        int seats;
+        synchronized (lease) {
+            lease.returned = true;
+            seats = lease.seats;
+            lease.seats = 0;
+        }
+        if (seats > 0) ownTx.executeWithoutResult(status -> credit(eventId, seats));
+    }
+
+    // one committed UPDATE for up to the wanted number of seats; returns how many were taken
+    private int grab(Long eventId, int wanted) {
+        Integer got = ownTx.execute(status -> {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                int available = remainingInDb(eventId);
+                if (available <= 0) return 0;
+                int n = Math.min(wanted, available);
+                if (decrement(eventId, n)) return n;
+            }
+            return 0;
+        });
+        return got == null ? 0 : got;
+    }
+
+    private boolean decrement(Long eventId, int seats) {
+        Map<String, Object> params = Map.of("seats", seats, "eventId", eventId);
+        if (named.update(DECREMENT, params) == 1) return true;
+        // not counted yet (created after V7): fill it in, then try once more
+        return named.update(COUNT_FROM_BOOKINGS, params) == 1
+                && named.update(DECREMENT, params) == 1;
+    }
+
+    private int remainingInDb(Long eventId) {
+        try {
+            Integer remaining = jdbc.queryForObject(SELECT_REMAINING, Integer.class, eventId);
+            if (remaining != null) return remaining;
+            named.update(COUNT_FROM_BOOKINGS, Map.of("eventId", eventId));
+            remaining = jdbc.queryForObject(SELECT_REMAINING, Integer.class, eventId);
+            return remaining == null ? 0 : remaining;
+        } catch (EmptyResultDataAccessException ex) {
+            throw new ResourceNotFoundException("Event", eventId);
+        }
+    }
+}
@@ -1,35 +1,155 @@
 package com.example.event_booking.service;
 
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.ServiceBusyException;
 import com.example.event_booking.model.User;
 import com.example.event_booking.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.event_booking.security.PasswordHasher;
+import com.example.event_booking.security.PrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final List<String> ROLES = List.of("USER", "ADMIN");
+
     private final UserRepository userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher hasher;
+    private final PrincipalCache principalCache;
+    private final EntityCache entityCache;
+    // auth.register / auth.login timers (tag outcome), registered up front and keyed "name:outcome"
+    private final Map<String, Timer> timers = new HashMap<>();
+    // JDBC work that follows a hash runs here, so the hashing pool only ever does BCrypt
+    private final Executor ioExecutor;
 
-    public UserService(UserRepository userRepo, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepo, PasswordHasher hasher, PrincipalCache principalCache,
+                       MeterRegistry meterRegistry, EntityCache entityCache,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor ioExecutor) {
         this.userRepo = userRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.hasher = hasher;
+        this.principalCache = principalCache;
+        this.entityCache = entityCache;
+        registerTimers(meterRegistry, "auth.register", "success", "busy", "error");
+        registerTimers(meterRegistry, "auth.login", "success", "failure", "busy", "error");
+        this.ioExecutor = ioExecutor;
     }
 
-    public User createUser(User user) {
+    /**
+     * Register a user. Input is checked on the caller's thread; the BCrypt hash is
+     * computed on the hashing pool and the row is saved on the application task executor once it is ready.
+     * The future fails with ServiceBusyException when the hashing queue is full.
+     *
+     * @throws IllegalArgumentException for a missing or taken username
+     */
+    public CompletableFuture<User> register(User user) {
         if (user.getUsername() == null) throw new IllegalArgumentException("username required");
         String username = user.getUsername().trim();
         if (userRepo.existsByUsername(username)) {
             throw new IllegalArgumentException("username already taken");
         }
 
+        long start = System.nanoTime();
         String raw = user.getPassword() == null ? "" : user.getPassword();
-        user.setPassword(passwordEncoder.encode(raw));
+        return timed("auth.register", start, saved -> "success", hasher.encode(raw).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            if (user.getRole() == null) user.setRole("USER");
+            user.setUsername(username);
+            User saved = userRepo.save(user);
+            // a cached findByUsername miss is dropped by Hibernate (users table changed)
+            principalCache.invalidate(username);
+            return saved;
+        }, ioExecutor));
+    }
+
+    /** Blocking form of {@link #register(User)}. */
+    public User createUser(User user) {
+        return PasswordHasher.await(register(user));
+    }
+
+    /**
+     * Check credentials without tying up the request thread.
+     * Completes with the user on success and empty for an unknown user or wrong password.
+     * On success a hash made with a lower cost than security.bcrypt.strength is replaced.
+     */
+    public CompletableFuture<Optional<User>> authenticate(String username, String rawPassword) {
+        long start = System.nanoTime();
+        return timed("auth.login", start, user -> user.isPresent() ? "success" : "failure", check(username, rawPassword));
+    }
+
+    private CompletableFuture<Optional<User>> check(String username, String rawPassword) {
+        Optional<User> found = userRepo.findByUsername(username);
+        if (found.isEmpty() || found.get().getPassword() == null) return CompletableFuture.completedFuture(Optional.empty());
+
+        User user = found.get();
+        String raw = rawPassword == null ? "" : rawPassword;
+        return hasher.matches(raw, user.getPassword()).thenCompose(ok -> {
+            if (!ok) return CompletableFuture.completedFuture(Optional.<User>empty());
+            if (!hasher.needsUpgrade(user.getPassword())) return CompletableFuture.completedFuture(Optional.of(user));
+            // best effort: if the pool is busy or the update fails, the upgrade happens on a later login
+            return hasher.encode(raw).handleAsync((hash, ex) -> {
+                if (ex == null) {
+                    try {
+                        userRepo.updatePassword(user.getId(), hash);
+                        entityCache.evictUser(user.getId());
+                    } catch (RuntimeException updateEx) {
+                        log.warn("Could not upgrade password hash for {}: {}", username, updateEx.getMessage());
+                    }
+                }
+                return Optional.of(user);
+            }, ioExecutor);
+        });
+    }
+
+    // records <name>{outcome} when the future completes: time includes waiting for the hashing pool
+    private <T> CompletableFuture<T> timed(String name, long start, Function<T, String> outcomeOf, CompletableFuture<T> future) {
+        return future.whenComplete((result, ex) -> {
+            String outcome = ex == null ? outcomeOf.apply(result)
+                    : ex instanceof ServiceBusyException || ex.getCause() instanceof ServiceBusyException ? "busy" : "error";
+            timers.get(name + ":" + outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private void registerTimers(MeterRegistry meterRegistry, String name, String... outcomes) {
+        for (String outcome : outcomes) {
+            timers.put(name + ":" + outcome, Timer.builder(name).tag("outcome", outcome).register(meterRegistry));
+        }
+    }
 
-        if (user.getRole() == null) user.setRole("USER");
-        user.setUsername(username);
-        return userRepo.save(user);
+    /**
+     * Change a user's role and drop any cached principal for them. Tokens already issued are
+     * authorized with the new role from their next request on (after security.principal-cache.ttl-ms
+     * on other nodes); their role claim is not trusted.
+     * Called by PUT /api/admin/users/{username}/role.
+     *
+     * @throws IllegalArgumentException for a role other than USER or ADMIN
+     * @throws ResourceNotFoundException for an unknown user
+     */
+    public User changeRole(String username, String role) {
+        if (role == null || role.trim().isEmpty()) throw new IllegalArgumentException("role required");
+        String normalized = role.trim().toUpperCase();
+        if (!ROLES.contains(normalized)) throw new IllegalArgumentException("role must be one of " + ROLES);
+        User user = userRepo.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        user.setRole(normalized);
+        User saved = userRepo.save(user);
+        principalCache.invalidate(username);
+        entityCache.evictUser(saved.getId());
+        return saved;
     }
 
     public User findByUsername(String username) {
@@ -40,6 +160,6 @@ public class UserService {
     public boolean checkPassword(String rawPassword, String encodedPassword) {
         if (rawPassword == null) rawPassword = "";
         if (encodedPassword == null) return false;
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return PasswordHasher.await(hasher.matches(rawPassword, encodedPassword));
     }
 }
\ No newline at end of file
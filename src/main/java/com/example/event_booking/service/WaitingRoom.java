@@ -0,0 +1,161 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.AdmissionStatus;
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.SoldOutException;
+import com.example.event_booking.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event virtual waiting room in front of the booking endpoint (booking.waiting-room.*).
+ *
+ * - joining hands out the next queue position and a signed ticket carrying it; the ticket is minted
+ *   once per place and handed out again by status polls, re-signed only after half its lifetime
+ * - a scheduler raises each event's admitted watermark by a fixed number of positions per tick,
+ *   so the booking path sees admit-per-second requests per event, however large the crowd
+ * - a booking is let through when its ticket is valid and its position is at or below the watermark;
+ *   that check is a signature verify and a map lookup, no DB
+ * - events whose in-memory counter reached zero are rejected on join and their room is dropped
+ * - every room gets a fresh generation and tickets carry it, so a ticket from a dropped room
+ *   is not admitted by the room that replaces it; its holder has to join again
+ *
+ * Rooms live in this JVM only; behind several nodes use sticky routing per event.
+ */
+@Component
+public class WaitingRoom {
+
+    private final SeatInventory inventory;
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+    private final long admitPerTick;
+    private final long ticketTtlMs;
+
+    private final ConcurrentHashMap<Long, Room> rooms = new ConcurrentHashMap<>();
+    // seeded from the clock so rooms created after a restart don't reuse generations of the previous run
+    private static final AtomicLong GENERATIONS = new AtomicLong(System.currentTimeMillis());
+
+    private static final class Room {
+        final long generation = GENERATIONS.incrementAndGet();
+        final AtomicLong tail = new AtomicLong();
+        final ConcurrentHashMap<String, Place> places = new ConcurrentHashMap<>();
+        volatile long admitted;
+        volatile long lastJoin = System.currentTimeMillis();
+    }
+
+    private static final class Place {
+        final long position;
+        // guarded by this
+        String ticket;
+        long reissueAt;
+
+        Place(long position) {
+            this.position = position;
+        }
+    }
+
+    public WaitingRoom(SeatInventory inventory, JwtUtil jwtUtil,
+                       @Value("${booking.waiting-room.enabled:false}") boolean enabled,
+                       @Value("${booking.waiting-room.admit-per-second:50}") int admitPerSecond,
+                       @Value("${booking.waiting-room.admit-interval-ms:1000}") long admitIntervalMs,
+                       @Value("${booking.waiting-room.ticket-ttl-ms:900000}") long ticketTtlMs) {
+        this.inventory = inventory;
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.admitPerTick = Math.max(1, admitPerSecond * admitIntervalMs / 1000);
+        this.ticketTtlMs = ticketTtlMs;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /**
+     * Take (or look up) the user's place in the event's queue.
+     * Joining twice keeps the original position.
+     *
+     * @throws SoldOutException if the event has no seats left
+     */
+    public AdmissionStatus join(String username, Long eventId) {
+        if (inventory.available(eventId) == 0) {
+            rooms.remove(eventId);
+            throw new SoldOutException(eventId);
+        }
+        Room room = rooms.computeIfAbsent(eventId, id -> new Room());
+        room.lastJoin = System.currentTimeMillis();
+        Place place = room.places.computeIfAbsent(username, u -> new Place(room.tail.incrementAndGet()));
+        return statusOf(room, username, eventId, place);
+    }
+
+    /**
+     * Current place in the queue. Read-only: it never joins; rooms are cleaned up by admit().
+     *
+     * @throws ResourceNotFoundException if the user is not in the event's current room
+     */
+    public AdmissionStatus status(String username, Long eventId) {
+        if (inventory.isSoldOut(eventId)) {
+            return new AdmissionStatus(eventId, 0, 0, false, true, null);
+        }
+        Room room = rooms.get(eventId);
+        Place place = room == null ? null : room.places.get(username);
+        if (place == null) {
+            throw new ResourceNotFoundException("Not in the waiting room for event " + eventId + "; join it first");
+        }
+        return statusOf(room, username, eventId, place);
+    }
+
+    /**
+     * Whether a booking request carrying this ticket may go through now.
+     */
+    public boolean isAdmitted(String ticket, String username, Long eventId) {
+        if (!enabled) return true;
+        JwtUtil.VerifiedToken admission = jwtUtil.admissionTicket(ticket, username, eventId);
+        Room room = rooms.get(eventId);
+        return admission != null && room != null && admission.room() == room.generation
+                && admission.position() <= room.admitted;
+    }
+
+    /** True when the ticket is genuine for this user and event and was issued by its current room, admitted or not. */
+    public boolean isValidTicket(String ticket, String username, Long eventId) {
+        JwtUtil.VerifiedToken admission = jwtUtil.admissionTicket(ticket, username, eventId);
+        Room room = rooms.get(eventId);
+        return admission != null && room != null && admission.room() == room.generation;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.waiting-room.admit-interval-ms:1000}")
+    public void admit() {
+        long now = System.currentTimeMillis();
+        rooms.forEach((eventId, room) -> {
+            long tail = room.tail.get();
+            // sold out, or drained and quiet for longer than any ticket lives: drop the room
+            if (inventory.isSoldOut(eventId) || (room.admitted >= tail && now - room.lastJoin > ticketTtlMs)) {
+                rooms.remove(eventId, room);
+                return;
+            }
+            room.admitted = Math.min(tail, room.admitted + admitPerTick);
+        });
+    }
+
+    private AdmissionStatus statusOf(Room room, String username, Long eventId, Place place) {
+        long position = place.position;
+        long admitted = room.admitted;
+        boolean in = !enabled || position <= admitted;
+        return new AdmissionStatus(eventId, position, Math.max(0, position - admitted - 1), in, false,
+                ticketFor(room, username, eventId, place));
+    }
+
+    // Signing is the expensive part of a status poll, and the ticket only depends on the place, so it is
+    // minted once; a holder still queued after half the ticket's lifetime gets a fresh one.
+    private String ticketFor(Room room, String username, Long eventId, Place place) {
+        long now = System.currentTimeMillis();
+        synchronized (place) {
+            if (place.ticket == null || now >= place.reissueAt) {
+                place.ticket = jwtUtil.generateAdmissionTicket(username, eventId, room.generation, place.position, ticketTtlMs);
+                place.reissueAt = now + ticketTtlMs / 2;
+            }
+            return place.ticket;
+        }
+    }
+}
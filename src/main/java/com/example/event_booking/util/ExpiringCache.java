@@ -0,0 +1,96 @@
+package com.example.event_booking.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small bounded, TTL-evicting map used for hot-path lookups (principals, verified tokens, ...).
+ *
+ * - entries expire after the configured TTL, or earlier if put() is given an explicit deadline
+ * - when full, expired entries are purged first, then arbitrary entries are dropped
+ * - concurrent loads of the same missing key may both call the loader; last write wins
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMs;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ExpiringCache(int maxSize, long ttlMs) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Return the cached value, or null if absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (e.expiresAt <= System.currentTimeMillis()) {
+            map.remove(key, e);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.value;
+    }
+
+    /**
+     * Return the cached value, loading and caching it on a miss.
+     * Null results from the loader are not cached.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+        value = loader.apply(key);
+        if (value != null) put(key, value);
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMs);
+    }
+
+    /**
+     * Cache a value until the earlier of the given deadline and now + TTL.
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long deadline = Math.min(expiresAtMillis, System.currentTimeMillis() + ttlMs);
+        if (map.size() >= maxSize && !map.containsKey(key)) makeRoom();
+        map.put(key, new Entry<>(value, deadline));
+    }
+
+    public void invalidate(K key) { map.remove(key); }
+
+    public void invalidateAll() { map.clear(); }
+
+    public int size() { return map.size(); }
+
+    public long hitCount() { return hits.sum(); }
+
+    public long missCount() { return misses.sum(); }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        map.entrySet().removeIf(en -> en.getValue().expiresAt <= now);
+        // still full: drop a slice of live entries rather than scanning on every put
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        int toDrop = map.size() - maxSize + Math.max(1, maxSize / 10);
+        while (toDrop-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -0,0 +1,119 @@
+package com.example.event_booking.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel for large numbers of deadlines with coarse (tick) precision.
+ *
+ * - schedule() and Timeout.cancel() are O(1) and safe from any thread
+ * - advance() is called by a single driver thread; it moves the wheel up to "now"
+ *   and returns the payloads whose deadline passed, as one batch
+ * - new timeouts are handed to the driver through a lock-free queue, so the
+ *   buckets themselves are only ever touched by that one thread
+ * - deadlines further away than one rotation stay in their bucket and are skipped
+ *   until their round comes up
+ */
+public class HashedTimerWheel<T> {
+
+    public final class Timeout {
+        private final T payload;
+        private final long deadlineTick;
+        private final AtomicBoolean done = new AtomicBoolean(); // fired or cancelled, whichever came first
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T payload() { return payload; }
+
+        /**
+         * Stop this timeout from firing; it is dropped lazily when its bucket comes up.
+         * Returns false if it already fired (or was already cancelled).
+         */
+        public boolean cancel() {
+            if (!done.compareAndSet(false, true)) return false;
+            pending.decrementAndGet();
+            return true;
+        }
+    }
+
+    private final long tickMs;
+    private final long startMillis;
+    private final int mask;
+    private final List<ArrayDeque<Timeout>> buckets;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // next tick to process; only read and written by the driver thread
+    private long currentTick;
+
+    public HashedTimerWheel(long tickMs, int wheelSize) {
+        if (tickMs < 1) throw new IllegalArgumentException("tickMs must be >= 1");
+        if (wheelSize < 1) throw new IllegalArgumentException("wheelSize must be >= 1");
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1; // round up to a power of two
+        this.tickMs = tickMs;
+        this.startMillis = System.currentTimeMillis();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) buckets.add(new ArrayDeque<>());
+    }
+
+    public Timeout schedule(T payload, long delayMs) {
+        long deadline = System.currentTimeMillis() + Math.max(0, delayMs);
+        // round up so a timeout never fires early
+        Timeout t = new Timeout(payload, (deadline - startMillis + tickMs - 1) / tickMs);
+        pending.incrementAndGet();
+        incoming.add(t);
+        return t;
+    }
+
+    /** Scheduled and not yet fired or cancelled. */
+    public int size() { return pending.get(); }
+
+    /**
+     * Move the wheel up to the given time and return everything that expired.
+     * Must only be called from one thread at a time.
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMs;
+        transferIncoming();
+
+        List<T> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            ArrayDeque<Timeout> bucket = buckets.get((int) (currentTick & mask));
+            Iterator<Timeout> it = bucket.iterator();
+            while (it.hasNext()) {
+                Timeout t = it.next();
+                if (t.done.get()) {
+                    it.remove(); // cancelled
+                } else if (t.deadlineTick <= currentTick) {
+                    it.remove();
+                    if (t.done.compareAndSet(false, true)) {
+                        pending.decrementAndGet();
+                        expired.add(t.payload);
+                    }
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    private void transferIncoming() {
+        Timeout t;
+        while ((t = incoming.poll()) != null) {
+            if (t.done.get()) continue;
+            // anything already due goes into the next bucket to be processed
+            long tick = Math.max(t.deadlineTick, currentTick);
+            buckets.get((int) (tick & mask)).add(t);
+        }
+    }
+}
@@ -2,28 +2,78 @@ package com.example.event_booking.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
     private final Key key;
     private final long expirationMs;
 
+    // waiting-room tickets are signed with the same key but must never authenticate a request
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ADMISSION_TYPE = "admission";
+    private static final String EVENT_CLAIM = "evt";
+    private static final String POSITION_CLAIM = "pos";
+    private static final String ROOM_CLAIM = "room";
+
+    // JwtParser is immutable and thread-safe once built
+    private final JwtParser parser;
+
+    // verified tokens keyed by SHA-256 of the token; entries never outlive the token's exp.
+    // Only the immutable VerifiedToken is cached: every caller gets the same instance
+    private final ExpiringCache<String, VerifiedToken> verified;
+    private final Timer verifyTimer;
+    private final Timer rejectTimer;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
+
     public JwtUtil(
             @Value("${jwt.secret:default-insecure-secret-do-not-use-in-prod}") String secret,
-            @Value("${jwt.expiration-ms:3600000}") long expirationMs) {
+            @Value("${jwt.expiration-ms:3600000}") long expirationMs,
+            @Value("${jwt.cache.max-size:50000}") int cacheMaxSize,
+            @Value("${jwt.cache.ttl-ms:300000}") long cacheTtlMs,
+            MeterRegistry meterRegistry) {
 
         byte[] keyBytes = ensureKeyBytes(secret);
         this.key = Keys.hmacShaKeyFor(keyBytes);
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = new ExpiringCache<>(cacheMaxSize, cacheTtlMs);
+
+        this.verifyTimer = Timer.builder("jwt.verify").tag("outcome", "valid")
+                .description("Signature verification and parsing of tokens not found in the cache")
+                .register(meterRegistry);
+        this.rejectTimer = Timer.builder("jwt.verify").tag("outcome", "invalid")
+                .description("Signature verification and parsing of tokens not found in the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.hits", verified, ExpiringCache::hitCount).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.misses", verified, ExpiringCache::missCount).register(meterRegistry);
+        Gauge.builder("jwt.cache.hit.ratio", verified, c -> {
+            double total = c.hitCount() + c.missCount();
+            return total == 0 ? 0 : c.hitCount() / total;
+        }).register(meterRegistry);
+        Gauge.builder("jwt.cache.size", verified, ExpiringCache::size).register(meterRegistry);
     }
 
     /**
@@ -64,18 +114,104 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Signed waiting-room ticket: the user's queue position in one room (generation) of one event.
+     */
+    public String generateAdmissionTicket(String username, Long eventId, long room, long position, long ttlMs) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TYPE_CLAIM, ADMISSION_TYPE);
+        claims.put(EVENT_CLAIM, eventId);
+        claims.put(ROOM_CLAIM, room);
+        claims.put(POSITION_CLAIM, position);
+
+        Date now = new Date();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(username)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + ttlMs))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * A valid admission ticket issued to this user for this event, or null.
+     * Its room() and position() are both set.
+     */
+    public VerifiedToken admissionTicket(String ticket, String username, Long eventId) {
+        VerifiedToken token = verify(ticket);
+        if (token == null || !token.isAdmissionTicket()) return null;
+        if (username == null || !username.equals(token.subject())) return null;
+        if (token.eventId() == null || !token.eventId().equals(eventId)) return null;
+        return token.room() == null || token.position() == null ? null : token;
+    }
+
     /**
      * Validate token and return the username (subject). Returns null if invalid.
      */
     public String validateAndGetUsername(String token) {
+        VerifiedToken verified = validateToken(token);
+        return verified == null ? null : verified.subject();
+    }
+
+    /**
+     * Validate token and return its subject and role. Returns null if invalid
+     * or if it is an admission ticket rather than a login token.
+     * Tokens seen before are answered from the verified-token cache until they expire.
+     */
+    public VerifiedToken validateToken(String token) {
+        VerifiedToken verified = verify(token);
+        return verified == null || verified.isAdmissionTicket() ? null : verified;
+    }
+
+    private VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) return null;
+        String digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) return cached;
+
+        long start = System.nanoTime();
+        Timer timer = rejectTimer;
         try {
-            Jws<Claims> jws = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return jws.getBody().getSubject();
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            VerifiedToken result = VerifiedToken.of(claims);
+            Date exp = claims.getExpiration();
+            if (exp != null) verified.put(digest, result, exp.getTime());
+            timer = verifyTimer;
+            return result;
         } catch (JwtException | IllegalArgumentException ex) {
             return null;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
+    /**
+     * The claims this app reads from a verified token, copied out of the parsed (mutable) Claims.
+     * role is null for tokens issued without one; eventId, room and position are set on admission tickets only.
+     */
+    public record VerifiedToken(String subject, String role, String type, Long eventId, Long room, Long position) {
+
+        static VerifiedToken of(Claims claims) {
+            return new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                    claims.get(TYPE_CLAIM, String.class),
+                    longClaim(claims, EVENT_CLAIM), longClaim(claims, ROOM_CLAIM), longClaim(claims, POSITION_CLAIM));
+        }
+
+        private static Long longClaim(Claims claims, String name) {
+            Number value = claims.get(name, Number.class);
+            return value == null ? null : value.longValue();
+        }
+
+        boolean isAdmissionTicket() { return ADMISSION_TYPE.equals(type); }
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
     private static byte[] ensureKeyBytes(String secret) {
         byte[] bytes = secret == null ? new byte[0] : secret.getBytes(StandardCharsets.UTF_8);
         if (bytes.length >= 32) return bytes;
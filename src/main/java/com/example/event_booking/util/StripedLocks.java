@@ -0,0 +1,26 @@
+package com.example.event_booking.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed array of locks addressed by key hash.
+ * Equal keys always share a lock; unrelated keys rarely do, so memory stays
+ * constant no matter how many keys are in play.
+ */
+public class StripedLocks {
+
+    private final Lock[] locks;
+
+    public StripedLocks(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be >= 1");
+        this.locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) locks[i] = new ReentrantLock();
+    }
+
+    public Lock lockFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16); // spread high bits, as HashMap does
+        return locks[Math.floorMod(h, locks.length)];
+    }
+}
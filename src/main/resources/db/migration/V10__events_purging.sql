@@ -0,0 +1,6 @@
+-- V10__events_purging.sql
+-- Tombstone for background deletes (EventPurger): set when an event is handed to the purger, gone with
+-- the event row once its bookings are deleted. On startup, flagged events are closed for booking again and
+-- their purge is resumed, instead of reopening half-deleted events.
+
+ALTER TABLE events ADD COLUMN purging BOOLEAN NOT NULL DEFAULT FALSE;
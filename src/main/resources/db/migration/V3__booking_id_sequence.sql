@@ -0,0 +1,11 @@
+-- V3__booking_id_sequence.sql
+-- Booking ids come from a pooled sequence (allocationSize = 50) so inserts can be JDBC-batched.
+-- MySQL has no sequences; Hibernate emulates "booking_seq" with a single-row table.
+
+CREATE TABLE IF NOT EXISTS booking_seq (
+  next_val BIGINT
+);
+
+-- start past existing ids: the pooled optimizer hands out (next_val - 49 .. next_val]
+INSERT INTO booking_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM bookings;
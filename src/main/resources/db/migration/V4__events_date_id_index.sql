@@ -0,0 +1,4 @@
+-- V4__events_date_id_index.sql
+-- Supports keyset pagination of /api/events ordered by (date, id)
+
+CREATE INDEX idx_events_date_id ON events (`date`, id);
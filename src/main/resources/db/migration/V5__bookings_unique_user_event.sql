@@ -0,0 +1,9 @@
+-- V5__bookings_unique_user_event.sql
+-- One booking per (user, event): makes booking idempotent at the DB level.
+
+-- drop duplicates left by double-clicks, keeping the earliest booking
+DELETE b1 FROM bookings b1
+JOIN bookings b2
+  ON b1.user_id = b2.user_id AND b1.event_id = b2.event_id AND b1.id > b2.id;
+
+ALTER TABLE bookings ADD CONSTRAINT uq_bookings_user_event UNIQUE (user_id, event_id);
@@ -0,0 +1,11 @@
+-- V6__event_id_sequence.sql
+-- Event ids come from a pooled sequence (allocationSize = 50) so bulk imports can be JDBC-batched.
+-- Same single-row table emulation as booking_seq (V3).
+
+CREATE TABLE IF NOT EXISTS event_seq (
+  next_val BIGINT
+);
+
+-- start past existing ids: the pooled optimizer hands out (next_val - 49 .. next_val]
+INSERT INTO event_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM events;
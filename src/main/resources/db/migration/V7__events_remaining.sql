@@ -0,0 +1,8 @@
+-- V7__events_remaining.sql
+-- Seats left per event, for booking.inventory.mode=cluster: every node admits a booking with
+--   UPDATE events SET remaining = remaining - n WHERE id = ? AND remaining >= n
+-- NULL means "not counted yet"; the first booking in cluster mode fills it in from capacity and the
+-- SUM(seats) of the event's bookings (SeatLedger.COUNT_FROM_BOOKINGS). No back-fill here: local mode
+-- never updates the column, so a value written now would be stale by the time cluster mode is enabled.
+
+ALTER TABLE events ADD COLUMN remaining INT NULL;
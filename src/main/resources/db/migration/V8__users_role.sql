@@ -0,0 +1,12 @@
+-- V8__users_role.sql
+-- users.role is mapped by the User entity, but V1 created `roles`. The column used to be added by
+-- spring.jpa.hibernate.ddl-auto=update, which no longer runs at startup: Flyway alone owns the schema.
+-- No-op where ddl-auto already added it (same information_schema check as V2).
+
+SET @schema := DATABASE();
+
+SET @col := (SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA=@schema AND TABLE_NAME='users' AND COLUMN_NAME='role');
+SET @sql := IF(@col = 0, 'ALTER TABLE `users` ADD COLUMN `role` VARCHAR(50) NOT NULL DEFAULT ''USER''', 'SELECT 1');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
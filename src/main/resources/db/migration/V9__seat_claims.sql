@@ -0,0 +1,15 @@
+-- V9__seat_claims.sql
+-- Seats a node has taken off events.remaining but not yet written as bookings (holds, cluster leases,
+-- write-behind queue), for booking.inventory.mode=cluster. Each node rewrites its own rows every
+-- rebalance; rows not refreshed within booking.cluster.claim-ttl-ms belong to a crashed node and their
+-- seats are credited back to events.remaining.
+
+CREATE TABLE seat_claims (
+    node_id VARCHAR(64) NOT NULL,
+    event_id BIGINT NOT NULL,
+    seats INT NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (node_id, event_id)
+);
+
+CREATE INDEX idx_seat_claims_event ON seat_claims (event_id);
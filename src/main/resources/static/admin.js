@@ -47,10 +47,13 @@ document.addEventListener('DOMContentLoaded', () => {
 
   clearBtn.addEventListener('click', () => form.reset());
   refreshBtn.addEventListener('click', () => { loadEvents(); loadBookings(); });
+  document.getElementById('moreBookingsBtn').addEventListener('click', () => loadMoreBookings());
+  document.getElementById('exportCsvBtn').addEventListener('click', downloadBookingsCsv);
 
   // initial load
   loadEvents();
   loadBookings();
+  subscribeAvailability();
 });
 
 // --- auth helpers ---
@@ -91,10 +94,12 @@ async function loadEvents() {
     tbody.innerHTML = '';
     events.forEach(ev => {
       const tr = document.createElement('tr');
+      tr.dataset.eventId = ev.id;
 
       const titleTd = document.createElement('td'); titleTd.textContent = ev.title;
       const dateTd  = document.createElement('td'); dateTd.textContent = ev.date;
       const capTd   = document.createElement('td'); capTd.textContent = ev.capacity;
+      capTd.className = 'capacity'; capTd.dataset.capacity = ev.capacity;
       const actionsTd = document.createElement('td');
 
       // Delete button
@@ -113,6 +118,12 @@ async function loadEvents() {
             const txt = await safeReadText(resp);
             throw new Error(txt || 'Failed to delete');
           }
+          if (resp.status === 202) {
+            // large event: purged in the background, the availability stream removes the row when done
+            delBtn.textContent = 'Deleting…';
+            delBtn.disabled = true;
+            return;
+          }
           await loadEvents();
           await loadBookings();
         } catch (e) {
@@ -133,17 +144,29 @@ async function loadEvents() {
   }
 }
 
+// Bookings are paged off the streamed export (NDJSON, ordered by id) instead of loading the whole table.
+const BOOKINGS_PAGE_SIZE = 200;
+let lastBookingId = 0;
+
 async function loadBookings() {
   const tbody = document.querySelector('#bookingsTable tbody');
   tbody.innerHTML = '<tr><td colspan="4" class="muted">Loading...</td></tr>';
+  lastBookingId = 0;
+  await loadMoreBookings(true);
+}
+
+async function loadMoreBookings(first = false) {
+  const tbody = document.querySelector('#bookingsTable tbody');
+  const moreBtn = document.getElementById('moreBookingsBtn');
   try {
     // <-- use fetchWithAuth so JWT is included -->
-    const res = await fetchWithAuth('/api/bookings', { method: 'GET' });
+    const res = await fetchWithAuth(`${API_BASE}/bookings/export?format=ndjson&limit=${BOOKINGS_PAGE_SIZE}&afterId=${lastBookingId}`, { method: 'GET' });
 
     if (res.status === 401 || res.status === 403) {
       // not authorized to see bookings
       const txt = await safeReadText(res);
       tbody.innerHTML = `<tr><td colspan="4" class="muted">Bookings not available: ${escapeHtml(txt || res.statusText)}</td></tr>`;
+      if (moreBtn) moreBtn.style.display = 'none';
       return;
     }
 
@@ -152,70 +175,113 @@ async function loadBookings() {
       throw new Error(txt || 'Failed to fetch bookings');
     }
 
-    const bookings = await res.json();
-    if (!Array.isArray(bookings) || bookings.length === 0) {
+    const text = await res.text();
+    const bookings = text.split('\n').filter(line => line.trim()).map(line => JSON.parse(line));
+    if (first) tbody.innerHTML = '';
+    if (first && bookings.length === 0) {
       tbody.innerHTML = '<tr><td colspan="4" class="muted">No bookings found</td></tr>';
-      return;
     }
+    bookings.forEach(b => tbody.appendChild(bookingRow(b)));
+    if (bookings.length) lastBookingId = bookings[bookings.length - 1].id;
+    if (moreBtn) moreBtn.style.display = bookings.length === BOOKINGS_PAGE_SIZE ? 'inline-block' : 'none';
 
-    tbody.innerHTML = '';
-    bookings.forEach(b => {
-      const tr = document.createElement('tr');
+  } catch (err) {
+    tbody.innerHTML = `<tr><td colspan="4" class="muted">Error loading bookings: ${escapeHtml(err.message)}</td></tr>`;
+  }
+}
 
-      const userTd = document.createElement('td');
-      userTd.textContent = b.user ? b.user.username || (`id:${b.user.id}`) : ('user_id:' + (b.user?.id || 'N/A'));
-
-      const eventTd = document.createElement('td');
-      eventTd.textContent = b.event ? b.event.title || (`id:${b.event.id}`) : ('event_id:' + (b.event?.id || 'N/A'));
-
-      const qrTd = document.createElement('td');
-      const qrPath = b.qrCodePath || '';
-      if (qrPath) {
-        const a = document.createElement('a');
-        a.href = '/' + qrPath;
-        a.target = '_blank';
-        a.textContent = qrPath;
-        qrTd.appendChild(a);
-      } else {
-        qrTd.textContent = '—';
-      }
+function bookingRow(b) {
+  const tr = document.createElement('tr');
 
-      const actionsTd = document.createElement('td');
-      const cancelBtn = document.createElement('button');
-      cancelBtn.textContent = 'Cancel';
-      cancelBtn.className = 'danger small';
-      cancelBtn.onclick = async () => {
-        if (!confirm('Cancel this booking?')) return;
-        try {
-          const resp = await fetchWithAuth(`/api/bookings/${b.id}`, { method: 'DELETE' });
-          if (resp.status === 401 || resp.status === 403) {
-            const txt = await safeReadText(resp);
-            throw new Error('Not authorized: ' + (txt || resp.statusText));
-          }
-          if (!resp.ok) {
-            const txt = await safeReadText(resp);
-            throw new Error(txt || 'Failed to cancel booking');
-          }
-          await loadBookings();
-        } catch (err) {
-          alert('Cancel failed: ' + err.message);
-        }
-      };
+  const userTd = document.createElement('td');
+  userTd.textContent = b.user ? b.user.username || (`id:${b.user.id}`) : ('user_id:' + (b.user?.id || 'N/A'));
 
-      actionsTd.appendChild(cancelBtn);
+  const eventTd = document.createElement('td');
+  eventTd.textContent = b.event ? b.event.title || (`id:${b.event.id}`) : ('event_id:' + (b.event?.id || 'N/A'));
 
-      tr.appendChild(userTd);
-      tr.appendChild(eventTd);
-      tr.appendChild(qrTd);
-      tr.appendChild(actionsTd);
-      tbody.appendChild(tr);
-    });
+  const qrTd = document.createElement('td');
+  const qrPath = b.qrCodePath || '';
+  if (qrPath) {
+    const a = document.createElement('a');
+    a.href = '/' + qrPath;
+    a.target = '_blank';
+    a.textContent = qrPath;
+    qrTd.appendChild(a);
+  } else {
+    qrTd.textContent = '—';
+  }
+
+  const actionsTd = document.createElement('td');
+  const cancelBtn = document.createElement('button');
+  cancelBtn.textContent = 'Cancel';
+  cancelBtn.className = 'danger small';
+  cancelBtn.onclick = async () => {
+    if (!confirm('Cancel this booking?')) return;
+    try {
+      const resp = await fetchWithAuth(`/api/bookings/${b.id}`, { method: 'DELETE' });
+      if (resp.status === 401 || resp.status === 403) {
+        const txt = await safeReadText(resp);
+        throw new Error('Not authorized: ' + (txt || resp.statusText));
+      }
+      if (!resp.ok) {
+        const txt = await safeReadText(resp);
+        throw new Error(txt || 'Failed to cancel booking');
+      }
+      tr.remove();
+    } catch (err) {
+      alert('Cancel failed: ' + err.message);
+    }
+  };
+
+  actionsTd.appendChild(cancelBtn);
 
+  tr.appendChild(userTd);
+  tr.appendChild(eventTd);
+  tr.appendChild(qrTd);
+  tr.appendChild(actionsTd);
+  return tr;
+}
+
+// full CSV export; fetched with the Authorization header, then saved as a file
+async function downloadBookingsCsv() {
+  try {
+    const res = await fetchWithAuth(`${API_BASE}/bookings/export?format=csv`, { method: 'GET' });
+    if (!res.ok) {
+      const txt = await safeReadText(res);
+      throw new Error(txt || res.statusText);
+    }
+    const url = URL.createObjectURL(await res.blob());
+    const a = document.createElement('a');
+    a.href = url;
+    a.download = 'bookings.csv';
+    document.body.appendChild(a);
+    a.click();
+    a.remove();
+    URL.revokeObjectURL(url);
   } catch (err) {
-    tbody.innerHTML = `<tr><td colspan="4" class="muted">Error loading bookings: ${escapeHtml(err.message)}</td></tr>`;
+    alert('Export failed: ' + err.message);
   }
 }
 
+// --- live availability (SSE) ---
+// Each message is [{ eventId, remaining, deleted }]; only changed events are sent.
+function subscribeAvailability() {
+  if (!window.EventSource) return;
+  const source = new EventSource(`${API_BASE}/events/stream`);
+  source.addEventListener('availability', (msg) => {
+    let deltas;
+    try { deltas = JSON.parse(msg.data); } catch (e) { return; }
+    deltas.forEach(d => {
+      const tr = document.querySelector(`#eventsTable tbody tr[data-event-id="${d.eventId}"]`);
+      if (!tr) return;
+      if (d.deleted) { tr.remove(); return; }
+      const capTd = tr.querySelector('td.capacity');
+      if (capTd) capTd.textContent = `${d.remaining} / ${capTd.dataset.capacity} left`;
+    });
+  });
+  // EventSource reconnects by itself after errors
+}
+
 // small helper
 function escapeHtml(s) {
   if (!s) return '';
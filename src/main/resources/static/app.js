@@ -154,7 +154,10 @@ document.addEventListener('DOMContentLoaded', async () => {
     const finalOpts = Object.assign({}, opts, { headers });
     const res = await fetch(url, finalOpts);
     if (res.status === 401 || res.status === 403) throw new Error(`Auth error (${res.status}). Please login.`);
-    if (!res.ok) { const txt = await safeReadText(res); throw new Error(`Request failed: ${res.status} ${res.statusText} - ${txt}`); }
+    if (!res.ok) {
+      const txt = await safeReadText(res);
+      throw Object.assign(new Error(`Request failed: ${res.status} ${res.statusText} - ${txt}`), { status: res.status });
+    }
     const ct = res.headers.get('content-type') || '';
     if (ct.includes('application/json')) return res.json();
     return safeReadText(res);
@@ -241,21 +244,17 @@ document.addEventListener('DOMContentLoaded', async () => {
       const events = await apiFetch('/events');
       cachedEvents = Array.isArray(events) ? events : [];
 
-      let bookings = [];
+      // per-event booked counts are aggregated server-side; no need to download every booking
+      const bookingCounts = {};
       try {
-        bookings = await apiFetch('/bookings');
-        if (!Array.isArray(bookings)) bookings = [];
-      } catch (bkErr) {
-        console.warn('Bookings not loaded:', bkErr.message);
-        if (messageEl) messageEl.textContent = 'Bookings not loaded: ' + bkErr.message;
-        bookings = [];
+        const availability = await apiFetch('/events/availability');
+        (Array.isArray(availability) ? availability : []).forEach(a => {
+          if (a && a.eventId != null) bookingCounts[a.eventId] = a.booked || 0;
+        });
+      } catch (avErr) {
+        console.warn('Availability not loaded:', avErr.message);
+        if (messageEl) messageEl.textContent = 'Availability not loaded: ' + avErr.message;
       }
-
-      const bookingCounts = {};
-      bookings.forEach(b => {
-        const eventId = (b && b.event && (b.event.id ?? b.eventId)) ?? (b && b.eventId) ?? null;
-        if (eventId != null) bookingCounts[eventId] = (bookingCounts[eventId] || 0) + 1;
-      });
       cachedBookingCounts = bookingCounts;
 
       const fcEvents = cachedEvents.map(e => ({ id: e.id, title: e.title || 'Untitled', start: e.date || e.start || null }));
@@ -284,9 +283,9 @@ document.addEventListener('DOMContentLoaded', async () => {
         const evId = info.event.id;
         if (!confirm(`Book event "${info.event.title}"?`)) return;
         try {
-          await apiFetch(`/bookings/book/${evId}`, { method: 'POST' });
+          await bookEvent(evId);
           alert('Booked successfully');
-          await fetchData();
+          if (!streamConnected) await fetchData();
         } catch (err) {
           alert('Booking failed: ' + err.message);
         }
@@ -332,10 +331,14 @@ document.addEventListener('DOMContentLoaded', async () => {
         btn.style.marginLeft = '8px';
         btn.textContent = 'Book';
         btn.onclick = async () => {
+          const answer = prompt(`How many seats for "${e.title || 'this event'}"?`, '1');
+          if (answer === null) return;
+          const seats = parseInt(answer, 10);
+          if (!(seats >= 1)) { alert('Enter a number of seats'); return; }
           try {
-            await apiFetch(`/bookings/book/${e.id}`, { method: 'POST' });
+            await bookEvent(e.id, seats);
             alert('Booked successfully');
-            await fetchData();
+            if (!streamConnected) await fetchData();
           } catch (err) {
             alert('Booking failed: ' + err.message);
           }
@@ -347,22 +350,94 @@ document.addEventListener('DOMContentLoaded', async () => {
     });
   }
 
-  function escapeHtml(s) {
-    if (!s) return '';
-    return String(s).replace(/&/g,'&amp;').replace(/</g,'&lt;').replace(/>/g,'&gt;');
+  // --- live availability (SSE) ---
+  // The server pushes [{ eventId, remaining, deleted }] for changed events only, so after a
+  // booking the list updates in place instead of re-downloading events and availability.
+  let streamConnected = false;
+
+  function subscribeAvailability() {
+    if (!window.EventSource) return;
+    const source = new EventSource('/api/events/stream');
+    source.onopen = () => { streamConnected = true; };
+    source.onerror = () => { streamConnected = false; }; // the browser retries on its own
+    source.addEventListener('availability', (msg) => {
+      let deltas;
+      try { deltas = JSON.parse(msg.data); } catch (e) { return; }
+      let unknown = false, removed = false;
+      deltas.forEach(d => {
+        if (d.deleted) {
+          const before = cachedEvents.length;
+          cachedEvents = cachedEvents.filter(e => e.id !== d.eventId);
+          delete cachedBookingCounts[d.eventId];
+          removed = removed || cachedEvents.length !== before;
+          return;
+        }
+        const ev = cachedEvents.find(e => e.id === d.eventId);
+        if (!ev) { unknown = true; return; }
+        cachedBookingCounts[d.eventId] = Math.max((ev.capacity || 0) - d.remaining, 0);
+      });
+      // a newly created event: fetch the list once to get its title and date
+      if (unknown) { fetchData(); return; }
+      if (removed) {
+        initCalendar(cachedEvents.map(e => ({ id: e.id, title: e.title || 'Untitled', start: e.date || e.start || null })));
+      }
+      const input = document.getElementById('searchInput');
+      renderAvailableList(cachedEvents, cachedBookingCounts, input ? input.value : '');
+    });
   }
 
-  if (searchInput) {
-    searchInput.addEventListener('input', () => {
+  // --- booking (through the waiting room when the server requires it) ---
+  // 428: no valid admission ticket yet -> join the queue; 429: queued -> wait until admitted
+  async function bookEvent(eventId, seats = 1) {
+    const key = newIdempotencyKey();
+    let ticket = null;
+    for (;;) {
+      const headers = { 'Idempotency-Key': key };
+      if (ticket) headers['X-Admission-Ticket'] = ticket;
       try {
-        renderAvailableList(cachedEvents, cachedBookingCounts, searchInput.value || '');
-        // toggle clear button
-        const clearBtn = document.getElementById('clearSearch');
-        if (clearBtn) clearBtn.style.display = searchInput.value ? 'inline-flex' : 'none';
-      } catch (e) {
-        console.warn('search update error', e);
+        return await apiFetch(`/bookings/book/${eventId}?seats=${seats}`, { method: 'POST', headers });
+      } catch (err) {
+        if (err.status === 428) ticket = null;
+        else if (err.status !== 429) throw err;
       }
-    });
+      ticket = await waitForAdmission(eventId, ticket);
+    }
+  }
+
+  async function waitForAdmission(eventId, ticket) {
+    let status = ticket
+        ? await queueStatus(eventId)
+        : await apiFetch(`/waiting-room/${eventId}`, { method: 'POST' });
+    while (!status.admitted) {
+      if (status.soldOut) throw new Error('Sold out');
+      if (messageEl) messageEl.textContent = `You are in the queue: ${status.ahead} ahead of you…`;
+      await new Promise(r => setTimeout(r, 2000));
+      status = await queueStatus(eventId);
+    }
+    if (messageEl) messageEl.textContent = '';
+    return status.ticket;
+  }
+
+  // GET only reads the queue; 404 means our room was dropped (or we never joined), so join again
+  async function queueStatus(eventId) {
+    try {
+      return await apiFetch(`/waiting-room/${eventId}`);
+    } catch (err) {
+      if (err.status !== 404) throw err;
+      return apiFetch(`/waiting-room/${eventId}`, { method: 'POST' });
+    }
+  }
+
+  // one key per booking attempt; a replay of the same request gets the original booking back
+  // (repeat clicks are also deduplicated server-side per user and event)
+  function newIdempotencyKey() {
+    if (window.crypto && crypto.randomUUID) return crypto.randomUUID();
+    return Date.now().toString(36) + Math.random().toString(36).slice(2);
+  }
+
+  function escapeHtml(s) {
+    if (!s) return '';
+    return String(s).replace(/&/g,'&amp;').replace(/</g,'&lt;').replace(/>/g,'&gt;');
   }
 
   // search debounce & clear
@@ -375,7 +450,21 @@ document.addEventListener('DOMContentLoaded', async () => {
       return (...args) => { clearTimeout(t); t = setTimeout(() => fn(...args), wait); };
     }
 
-    function doFilter(v) { renderAvailableList(cachedEvents, cachedBookingCounts, v); }
+    // server-side search (GET /events/search); the local filter is only a fallback
+    let searchSeq = 0;
+    async function doFilter(v) {
+      const q = (v || '').trim();
+      if (!q) { renderAvailableList(cachedEvents, cachedBookingCounts); return; }
+      const seq = ++searchSeq;
+      try {
+        const result = await apiFetch(`/events/search?q=${encodeURIComponent(q)}&limit=100`);
+        if (seq !== searchSeq) return; // a newer query is already on its way
+        renderAvailableList(result && Array.isArray(result.items) ? result.items : [], cachedBookingCounts);
+      } catch (e) {
+        console.warn('search failed, filtering locally', e);
+        if (seq === searchSeq) renderAvailableList(cachedEvents, cachedBookingCounts, q);
+      }
+    }
 
     const debounced = debounce(v => doFilter(v), 220);
 
@@ -400,4 +489,5 @@ document.addEventListener('DOMContentLoaded', async () => {
   updateAuthUI();
   renderPanelForAuth();
   await fetchData();
+  subscribeAvailability();
 });
\ No newline at end of file
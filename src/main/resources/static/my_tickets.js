@@ -46,7 +46,7 @@ async function loadMyTickets() {
       info.innerHTML = `
         <div class="ticket-title">${escapeHtml(ev.title || 'Event')}</div>
         <div class="ticket-meta">Date: ${escapeHtml(ev.date || '—')} • Capacity: ${ev.capacity || '—'}</div>
-        <div class="ticket-meta">Booked by: ${escapeHtml(user.username || ('id:' + (user.id || 'N/A')))} • Booking ID: ${b.id}</div>
+        <div class="ticket-meta">Booked by: ${escapeHtml(user.username || ('id:' + (user.id || 'N/A')))} • Seats: ${b.seats || 1} • Booking ID: ${b.id}</div>
       `;
 
       const actions = document.createElement('div');
@@ -0,0 +1,67 @@
+package com.example.event_booking.reactive;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Booking ids from booking_seq, handed out the way Hibernate's pooled optimizer does it
+ * (Booking's @SequenceGenerator, allocationSize = 50): a fetched value v reserves (v - 49 .. v],
+ * so ids never collide with the ones the servlet app generates.
+ *
+ * - PostgreSQL/H2: a real sequence (INCREMENT BY 50)
+ * - MySQL: the single-row booking_seq table (V3), bumped with a compare-and-set UPDATE like
+ *   Hibernate's table emulation; runs outside the booking transaction so the row lock isn't held
+ *   across the insert
+ */
+class BookingIds {
+
+    static final int ALLOCATION = 50;
+
+    private static final String NEXT_VAL_POSTGRES = "SELECT nextval('booking_seq') AS v";
+    private static final String NEXT_VAL_H2 = "SELECT NEXT VALUE FOR booking_seq AS v";
+    private static final String SELECT_TABLE = "SELECT next_val FROM booking_seq";
+    private static final String BUMP_TABLE = "UPDATE booking_seq SET next_val = :next WHERE next_val = :current";
+
+    private record Block(AtomicLong next, long hi) {}
+
+    private final DatabaseClient db;
+    private final boolean tableEmulation;
+    private final String nextValSql;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(new AtomicLong(1), 0));
+
+    BookingIds(DatabaseClient db) {
+        this.db = db;
+        String vendor = db.getConnectionFactory().getMetadata().getName();
+        this.tableEmulation = vendor.contains("MySQL") || vendor.contains("MariaDB");
+        this.nextValSql = vendor.contains("H2") ? NEXT_VAL_H2 : NEXT_VAL_POSTGRES;
+    }
+
+    /** Next id; a DB round-trip once every {@value #ALLOCATION} ids. */
+    Mono<Long> next() {
+        return Mono.defer(() -> {
+            Block block = current.get();
+            long id = block.next().getAndIncrement();
+            if (id <= block.hi()) return Mono.just(id);
+            // concurrent refills each get their own block; the loser's leftovers are skipped (ids may have gaps)
+            return fetchHi().map(hi -> {
+                current.compareAndSet(block, new Block(new AtomicLong(hi - ALLOCATION + 2), hi));
+                return hi - ALLOCATION + 1;
+            });
+        });
+    }
+
+    private Mono<Long> fetchHi() {
+        if (!tableEmulation) {
+            return db.sql(nextValSql).map(row -> ((Number) row.get("v")).longValue()).one();
+        }
+        return db.sql(SELECT_TABLE).map(row -> ((Number) row.get("next_val")).longValue()).one()
+                .flatMap(v -> db.sql(BUMP_TABLE).bind("next", v + ALLOCATION).bind("current", v)
+                        .fetch().rowsUpdated()
+                        .flatMap(updated -> updated == 1 ? Mono.just(v) : Mono.<Long>empty()))
+                // another node bumped it in between: read again
+                .repeatWhenEmpty(10, attempts -> attempts);
+    }
+}
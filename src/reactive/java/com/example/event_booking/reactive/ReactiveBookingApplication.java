@@ -0,0 +1,47 @@
+package com.example.event_booking.reactive;
+
+import com.example.event_booking.util.JwtUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Reactive booking/listing API (mvn -Preactive): WebFlux on Netty, R2DBC, no JDBC pool and no JPA.
+ *
+ * - serves the booking and listing endpoints of the servlet app under the same paths, so clients
+ *   and load tests can switch between the two
+ * - reuses the model and DTO classes and JwtUtil; everything else in com.example.event_booking is
+ *   servlet/JPA code and is not scanned
+ * - the schema is owned by the servlet app (Flyway); this one only reads and writes rows
+ * - the classes in this package only load in a reactive context, so the servlet app ignores them
+ *   when both are on the classpath
+ */
+@SpringBootApplication(
+        scanBasePackageClasses = ReactiveBookingApplication.class,
+        exclude = {
+                DataSourceAutoConfiguration.class,
+                HibernateJpaAutoConfiguration.class,
+                FlywayAutoConfiguration.class,
+                ReactiveUserDetailsServiceAutoConfiguration.class
+        })
+@Import(JwtUtil.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingApplication {
+
+    // Tomcat and Spring MVC are still on the classpath: without REACTIVE Boot would pick the servlet stack
+    public static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ReactiveBookingApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive");
+    }
+
+    public static void main(String[] args) {
+        application().run(args);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.event_booking.reactive;
+
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.dto.EventAvailability;
+import com.example.event_booking.exception.BookingConflictException;
+import com.example.event_booking.exception.SoldOutException;
+import com.example.event_booking.model.Event;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The booking and listing endpoints of EventController/BookingController on WebFlux.
+ * Lists are streamed as a JSON array, or as NDJSON with Accept: application/x-ndjson;
+ * either way rows are read from the DB only as fast as the client consumes them.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingController {
+
+    private final ReactiveBookingService bookings;
+
+    ReactiveBookingController(ReactiveBookingService bookings) {
+        this.bookings = bookings;
+    }
+
+    // full list by date (no ETag catalogue here); from/to narrow it
+    @GetMapping(value = "/events", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Event> listEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return bookings.events(from, to);
+    }
+
+    @GetMapping(value = "/events/availability", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EventAvailability> availability() {
+        return bookings.availability();
+    }
+
+    // same responses as BookingController.bookForCurrentUser: 409 sold out or other seat count already booked, 503 no DB connection in time, 400 otherwise
+    @PostMapping("/bookings/book/{eventId}")
+    public Mono<ResponseEntity<?>> bookForCurrentUser(Authentication authentication,
+                                                      @PathVariable Long eventId,
+                                                      @RequestParam(defaultValue = "1") int seats) {
+        return bookings.book(authentication.getName(), eventId, seats)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(SoldOutException.class, ex -> Mono.just(message(409, ex)))
+                .onErrorResume(BookingConflictException.class, ex -> Mono.just(message(409, ex)))
+                .onErrorResume(ReactiveBookingController::isBusy, ex -> Mono.just(message(503, ex)))
+                .onErrorResume(ex -> Mono.just(message(400, ex)));
+    }
+
+    @GetMapping(value = "/bookings/me", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BookingView> getMyBookings(Authentication authentication) {
+        return bookings.bookingsOf(authentication.getName());
+    }
+
+    private static ResponseEntity<?> message(int status, Throwable ex) {
+        return ResponseEntity.status(status).body(Map.of("message", String.valueOf(ex.getMessage())));
+    }
+
+    // connection pool exhausted (spring.r2dbc.pool.max-acquire-time) or the DB not answering
+    private static boolean isBusy(Throwable ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof TimeoutException;
+    }
+}
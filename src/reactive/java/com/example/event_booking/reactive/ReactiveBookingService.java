@@ -0,0 +1,176 @@
+package com.example.event_booking.reactive;
+
+import com.example.event_booking.dto.BookingView;
+import com.example.event_booking.dto.EventAvailability;
+import com.example.event_booking.exception.BookingConflictException;
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.SoldOutException;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.service.SeatLedger;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Booking and listing on R2DBC, with the same tables and rules as BookingService in
+ * booking.inventory.mode=cluster, but without a thread parked per request.
+ *
+ * - seats are taken with the conditional UPDATE on events.remaining (V7), in the same transaction
+ *   as the insert; NULL rows are counted from bookings first. Both statements are SeatLedger's
+ *   (SeatLedger.DECREMENT, SeatLedger.COUNT_FROM_BOOKINGS), so the two stacks can't drift apart
+ * - one booking per (user, event): a repeat returns the existing booking, and a concurrent
+ *   duplicate that hits uq_bookings_user_event is rolled back and answered the same way
+ * - lists are streamed with booking.reactive.fetch-size rows per round-trip, pulled only as fast
+ *   as the client reads them
+ * - no node-local leases: every booking of a hot event updates the same row
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class ReactiveBookingService {
+
+    private static final String EVENT_COLUMNS = "SELECT id, title, description, location, date, capacity FROM events";
+    private static final String AVAILABILITY = "SELECT e.id, e.capacity, SUM(b.seats) AS booked " +
+            "FROM events e LEFT JOIN bookings b ON b.event_id = e.id GROUP BY e.id, e.capacity ORDER BY e.id";
+    private static final String VIEW_SELECT = "SELECT b.id, b.seats, u.id AS user_id, u.username, " +
+            "e.id AS event_id, e.title, e.date, e.capacity " +
+            "FROM bookings b JOIN users u ON u.id = b.user_id JOIN events e ON e.id = b.event_id";
+
+    private static final String EVENT_EXISTS = "SELECT COUNT(*) AS n FROM events WHERE id = :eventId";
+    private static final String INSERT = "INSERT INTO bookings (id, user_id, event_id, seats) " +
+            "SELECT :id, u.id, :eventId, :seats FROM users u WHERE u.username = :username";
+
+    private final DatabaseClient db;
+    private final TransactionalOperator tx;
+    private final BookingIds ids;
+    private final int maxSeats;
+    private final int fetchSize;
+
+    ReactiveBookingService(DatabaseClient db, TransactionalOperator tx,
+                           @Value("${booking.max-seats:10}") int maxSeats,
+                           @Value("${booking.reactive.fetch-size:500}") int fetchSize) {
+        this.db = db;
+        this.tx = tx;
+        this.ids = new BookingIds(db);
+        this.maxSeats = maxSeats;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Events by date, optionally within [from, to]. */
+    Flux<Event> events(LocalDate from, LocalDate to) {
+        LocalDate lo = from != null ? from : LocalDate.of(1, 1, 1);
+        LocalDate hi = to != null ? to : LocalDate.of(9999, 12, 31);
+        return db.sql(EVENT_COLUMNS + " WHERE date >= :from AND date <= :to ORDER BY date, id")
+                .bind("from", lo).bind("to", hi)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(ReactiveBookingService::toEvent)
+                .all();
+    }
+
+    /** Booked and remaining seats per event, same shape as GET /api/events/availability. */
+    Flux<EventAvailability> availability() {
+        return db.sql(AVAILABILITY)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(row -> new EventAvailability(row.get("id", Long.class), row.get("capacity", Integer.class),
+                        row.get("booked") == null ? null : ((Number) row.get("booked")).longValue()))
+                .all();
+    }
+
+    Flux<BookingView> bookingsOf(String username) {
+        return db.sql(VIEW_SELECT + " WHERE u.username = :username ORDER BY b.id")
+                .bind("username", username)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(ReactiveBookingService::toView)
+                .all();
+    }
+
+    /**
+     * Book seats for a user; returns the existing booking if there already is one with the same seat count.
+     *
+     * @throws SoldOutException (as an error signal) if fewer seats remain
+     * @throws BookingConflictException (as an error signal) if the existing booking has a different seat count
+     * @throws ResourceNotFoundException if the event or user doesn't exist
+     */
+    Mono<BookingView> book(String username, Long eventId, int seats) {
+        if (seats < 1 || seats > maxSeats) {
+            return Mono.error(new IllegalArgumentException("seats must be between 1 and " + maxSeats));
+        }
+        return existing(username, eventId)
+                .switchIfEmpty(ids.next().flatMap(id -> tx.transactional(
+                                take(eventId, seats).then(insert(id, username, eventId, seats)))
+                        .then(view(id))))
+                .onErrorResume(DataIntegrityViolationException.class,
+                        ex -> existing(username, eventId).switchIfEmpty(Mono.error(ex)))
+                .flatMap(view -> view.getSeats() == seats ? Mono.just(view)
+                        : Mono.error(new BookingConflictException(eventId, view.getSeats(), seats)));
+    }
+
+    private Mono<BookingView> existing(String username, Long eventId) {
+        return db.sql(VIEW_SELECT + " WHERE u.username = :username AND e.id = :eventId")
+                .bind("username", username).bind("eventId", eventId)
+                .map(ReactiveBookingService::toView)
+                .one();
+    }
+
+    private Mono<BookingView> view(Long bookingId) {
+        return db.sql(VIEW_SELECT + " WHERE b.id = :id").bind("id", bookingId)
+                .map(ReactiveBookingService::toView)
+                .one();
+    }
+
+    private Mono<Void> take(Long eventId, int seats) {
+        return decrement(eventId, seats)
+                .flatMap(taken -> taken ? Mono.just(true)
+                        // not counted yet (created after V7): fill it in, then try once more
+                        : db.sql(SeatLedger.COUNT_FROM_BOOKINGS).bind("eventId", eventId).fetch().rowsUpdated()
+                                .then(decrement(eventId, seats)))
+                .flatMap(taken -> taken ? Mono.<Void>empty() : eventExists(eventId)
+                        .flatMap(exists -> Mono.<Void>error(exists ? new SoldOutException(eventId, seats)
+                                : new ResourceNotFoundException("Event", eventId))));
+    }
+
+    private Mono<Boolean> decrement(Long eventId, int seats) {
+        return db.sql(SeatLedger.DECREMENT).bind("seats", seats).bind("eventId", eventId)
+                .fetch().rowsUpdated()
+                .map(updated -> updated == 1);
+    }
+
+    private Mono<Boolean> eventExists(Long eventId) {
+        return db.sql(EVENT_EXISTS).bind("eventId", eventId)
+                .map(row -> ((Number) row.get("n")).longValue() > 0)
+                .one();
+    }
+
+    private Mono<Void> insert(Long id, String username, Long eventId, int seats) {
+        return db.sql(INSERT)
+                .bind("id", id).bind("eventId", eventId).bind("seats", seats).bind("username", username)
+                .fetch().rowsUpdated()
+                .flatMap(inserted -> inserted == 1 ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("User not found: " + username)));
+    }
+
+    private static Event toEvent(Readable row) {
+        Event e = new Event();
+        e.setId(row.get("id", Long.class));
+        e.setTitle(row.get("title", String.class));
+        e.setDescription(row.get("description", String.class));
+        e.setLocation(row.get("location", String.class));
+        e.setDate(row.get("date", LocalDate.class));
+        e.setCapacity(row.get("capacity", Integer.class));
+        return e;
+    }
+
+    private static BookingView toView(Readable row) {
+        return new BookingView(row.get("id", Long.class), row.get("seats", Integer.class),
+                row.get("user_id", Long.class), row.get("username", String.class),
+                row.get("event_id", Long.class), row.get("title", String.class),
+                row.get("date", LocalDate.class), row.get("capacity", Integer.class));
+    }
+}
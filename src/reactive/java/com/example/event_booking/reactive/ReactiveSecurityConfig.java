@@ -0,0 +1,78 @@
+package com.example.event_booking.reactive;
+
+import com.example.event_booking.util.JwtUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * WebFlux counterpart of WebSecurityConfig + JwtAuthenticationFilter for the reactive API.
+ *
+ * - stateless: Bearer JWT on every request, no session, no CSRF
+ * - the role comes from the token's role claim; tokens without one get USER (there is no
+ *   PrincipalCache lookup here, login and token issuing stay on the servlet app)
+ * - a present but invalid token is a 401, not an anonymous request
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil) {
+        AuthenticationWebFilter bearer = new AuthenticationWebFilter(jwtAuthentication(jwtUtil));
+        bearer.setServerAuthenticationConverter(ReactiveSecurityConfig::bearerToken);
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/events", "/api/events/availability").permitAll()
+                        .pathMatchers("/actuator/health").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
+                        .anyExchange().authenticated())
+                .addFilterAt(bearer, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    // the token travels as the credentials of an unauthenticated token until the manager checks it
+    private static Mono<Authentication> bearerToken(ServerWebExchange exchange) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) return Mono.empty();
+        String token = header.substring(7).trim();
+        if (token.isEmpty()) return Mono.empty();
+        return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(null, token));
+    }
+
+    // JwtUtil answers repeat tokens from its verified-token cache, so this doesn't need to leave the event loop
+    private static ReactiveAuthenticationManager jwtAuthentication(JwtUtil jwtUtil) {
+        return authentication -> {
+            JwtUtil.VerifiedToken verified = jwtUtil.validateToken((String) authentication.getCredentials());
+            if (verified == null || verified.subject() == null) {
+                return Mono.error(new BadCredentialsException("Invalid or expired token"));
+            }
+            String role = verified.role();
+            return Mono.just(UsernamePasswordAuthenticationToken.authenticated(verified.subject(), null,
+                    List.of(new SimpleGrantedAuthority("ROLE_" + (role != null ? role : "USER")))));
+        };
+    }
+}
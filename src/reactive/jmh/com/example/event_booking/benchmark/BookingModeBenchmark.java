@@ -0,0 +1,183 @@
+package com.example.event_booking.benchmark;
+
+import com.example.event_booking.EventBookingApplication;
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.reactive.ReactiveBookingApplication;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of the booking endpoints over real HTTP on the three stacks:
+ * servlet on platform threads, servlet on virtual threads, and the reactive app (WebFlux + R2DBC).
+ *
+ * - same paths, same JWTs, same H2 database; the reactive app runs next to the servlet app, which
+ *   owns the schema and seeds it
+ * - both take seats from events.remaining (servlet in booking.inventory.mode=cluster), and both
+ *   get 20 DB connections
+ * - every client thread is its own user and books the next event each call, so each call is a
+ *   real insert rather than the idempotent repeat
+ * - compare the SampleTime p99/p99.9 of book and myBookings across modes; throughput alone hides
+ *   queueing on the connection pool
+ *
+ * Run: mvn -Pbenchmark,reactive test-compile exec:exec -Djmh.args="BookingModeBenchmark -rf json -rff target/booking-mode.json"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(1)
+public class BookingModeBenchmark {
+
+    private static final int USERS = 256;
+    private static final int EVENTS = 2000;
+    private static final int SEEDED_BOOKINGS = 5;
+    private static final AtomicInteger TRIALS = new AtomicInteger();
+
+    @Param({"servlet", "virtual", "reactive"})
+    public String mode;
+
+    private ConfigurableApplicationContext servlet;
+    private ConfigurableApplicationContext reactive;
+    private HttpClient client;
+    private String baseUrl;
+    private final List<String> tokens = new ArrayList<>();
+    private final List<Long> eventIds = new ArrayList<>();
+    private final AtomicInteger nextUser = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        // fresh database per trial: each benchmark method x mode starts from the same seed
+        String db = "booking_mode_" + TRIALS.incrementAndGet();
+        servlet = new SpringApplicationBuilder(EventBookingApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--spring.datasource.url=jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=20",
+                "--spring.flyway.enabled=false",
+                "--spring.sql.init.mode=never",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // R2DBC is on the classpath with this profile; keep the servlet app on JPA only
+                "--spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+                "--booking.inventory.mode=cluster",
+                "--logging.level.root=WARN");
+
+        // V7 column; create-drop only knows the entity mapping
+        JdbcTemplate jdbc = servlet.getBean(JdbcTemplate.class);
+        jdbc.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS remaining INT");
+        // V9 table, written by the servlet app's rebalance in cluster mode
+        jdbc.execute("CREATE TABLE IF NOT EXISTS seat_claims (node_id VARCHAR(64) NOT NULL, event_id BIGINT NOT NULL,"
+                + " seats INT NOT NULL, updated_at TIMESTAMP(3) NOT NULL, PRIMARY KEY (node_id, event_id))");
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User u = new User();
+            u.setUsername("loadtest" + i);
+            u.setPassword("x");
+            u.setRole("USER");
+            users.add(u);
+        }
+        users = servlet.getBean(UserRepository.class).saveAll(users);
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            Event e = new Event();
+            e.setTitle("Load event " + i);
+            e.setDate(LocalDate.now().plusDays(i % 365));
+            e.setCapacity(1_000_000);
+            events.add(e);
+        }
+        events = servlet.getBean(EventRepository.class).saveAll(events);
+        events.forEach(e -> eventIds.add(e.getId()));
+
+        // a few bookings per user for GET /api/bookings/me
+        List<Booking> bookings = new ArrayList<>();
+        for (User u : users) {
+            for (int i = 0; i < SEEDED_BOOKINGS; i++) bookings.add(new Booking(u, events.get(i)));
+        }
+        servlet.getBean(BookingRepository.class).saveAll(bookings);
+
+        JwtUtil jwt = servlet.getBean(JwtUtil.class);
+        users.forEach(u -> tokens.add(jwt.generateToken(u.getUsername(), "USER")));
+
+        ConfigurableApplicationContext target = servlet;
+        if ("reactive".equals(mode)) {
+            reactive = ReactiveBookingApplication.application().run(
+                    "--server.port=0",
+                    "--spring.r2dbc.url=r2dbc:h2:mem:///" + db + "?options=DB_CLOSE_DELAY=-1",
+                    "--spring.r2dbc.username=sa",
+                    "--spring.r2dbc.password=",
+                    "--spring.r2dbc.pool.initial-size=20",
+                    "--spring.r2dbc.pool.max-size=20",
+                    "--logging.level.root=WARN");
+            target = reactive;
+        }
+        baseUrl = "http://localhost:" + target.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (reactive != null) reactive.close();
+        servlet.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        String authorization;
+        HttpRequest myBookings;
+        int next;
+
+        @Setup(Level.Trial)
+        public void login(BookingModeBenchmark bench) {
+            authorization = "Bearer " + bench.tokens.get(bench.nextUser.getAndIncrement() % USERS);
+            myBookings = HttpRequest.newBuilder(URI.create(bench.baseUrl + "/api/bookings/me"))
+                    .header("Authorization", authorization)
+                    .GET()
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public int book(Caller caller) throws Exception {
+        // past the last event the calls become idempotent repeats; keep iterations short enough not to get there
+        Long eventId = eventIds.get(SEEDED_BOOKINGS + caller.next++ % (EVENTS - SEEDED_BOOKINGS));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings/book/" + eventId))
+                .header("Authorization", caller.authorization)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    @Benchmark
+    public int myBookings(Caller caller) throws Exception {
+        return send(caller.myBookings);
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        HttpResponse<Void> res = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() != 200) throw new IllegalStateException("HTTP " + res.statusCode());
+        return res.statusCode();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.event_booking.controller;
+
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.security.PrincipalCache;
+import com.example.event_booking.service.SeatInventory;
+import com.example.event_booking.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingControllerStatementCountTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired UserRepository userRepo;
+    @Autowired EventRepository eventRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired EntityManagerFactory emf;
+    @Autowired SeatInventory inventory;
+    @Autowired PrincipalCache principalCache;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bookingRepo.deleteAll();
+        eventRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User alice = saveUser("alice");
+        User bob = saveUser("bob");
+
+        for (int i = 0; i < 3; i++) {
+            Event event = new Event();
+            event.setTitle("Event " + i);
+            event.setDate(LocalDate.now().plusDays(i));
+            event.setCapacity(10);
+            event = eventRepo.save(event);
+            bookingRepo.save(new Booking(alice, event));
+            bookingRepo.save(new Booking(bob, event));
+        }
+
+        token = jwtUtil.generateToken("alice", "ADMIN");
+        // the JWT filter looks the role up through PrincipalCache; warm it so the counts below are the endpoint's own
+        principalCache.invalidateAll();
+        mvc.perform(get("/api/bookings/me").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+    }
+
+    @Test
+    void listingAllBookingsIsOneStatement() throws Exception {
+        Statistics stats = statistics();
+
+        mvc.perform(get("/api/bookings").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[0].user.username").value("alice"))
+                .andExpect(jsonPath("$[0].user.password").doesNotExist());
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void myBookingsIsOneStatement() throws Exception {
+        Statistics stats = statistics();
+
+        mvc.perform(get("/api/bookings/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].event.title").exists());
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingReadsUserAndEventFromTheSecondLevelCache() throws Exception {
+        Event event = eventRepo.save(newEvent("Cached"));
+        saveUser("carol");
+        String carol = jwtUtil.generateToken("carol", "USER");
+
+        // first booking warms the seat counter, the users query cache and both entity regions
+        mvc.perform(post("/api/bookings/book/" + event.getId()).header("Authorization", "Bearer " + carol))
+                .andExpect(status().isOk());
+        bookingRepo.deleteAll(bookingRepo.findByEventId(event.getId()));
+        inventory.release(event.getId(), 1);
+
+        Statistics stats = statistics();
+        mvc.perform(post("/api/bookings/book/" + event.getId()).header("Authorization", "Bearer " + carol))
+                .andExpect(status().isOk());
+
+        // existing-booking check + insert; user and event come from the cache
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getQueryCacheHitCount()).isEqualTo(1); // findByUsername
+    }
+
+    private Event newEvent(String title) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDate(LocalDate.now());
+        event.setCapacity(10);
+        return event;
+    }
+
+    private User saveUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole("USER");
+        return userRepo.save(user);
+    }
+
+    private Statistics statistics() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.event_booking.controller;
+
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.UserRepository;
+import com.example.event_booking.security.PrincipalCache;
+import com.example.event_booking.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:useradmin;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class UserAdminControllerTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired UserRepository userRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo.deleteAll();
+        userRepo.deleteAll();
+        principalCache.invalidateAll();
+        saveUser("alice", "ADMIN");
+        saveUser("bob", "ADMIN");
+    }
+
+    @Test
+    void demotedAdminIsForbiddenWithTheTokenIssuedBeforeTheChange() throws Exception {
+        String alice = jwtUtil.generateToken("alice", "ADMIN");
+        String bob = jwtUtil.generateToken("bob", "ADMIN");
+
+        // bob's token works as an admin token, which also puts his role in the principal cache
+        changeRole(bob, "alice", "ADMIN").andExpect(status().isOk());
+
+        changeRole(alice, "bob", "USER")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("USER"));
+
+        // same token, still signed with role=ADMIN
+        changeRole(bob, "alice", "USER").andExpect(status().isForbidden());
+    }
+
+    @Test
+    void removedUserIsNoLongerAuthenticated() throws Exception {
+        String bob = jwtUtil.generateToken("bob", "ADMIN");
+        changeRole(bob, "alice", "ADMIN").andExpect(status().isOk());
+
+        userRepo.delete(userRepo.findByUsername("bob").orElseThrow());
+        principalCache.invalidate("bob");
+
+        changeRole(bob, "alice", "USER").andExpect(status().isForbidden());
+    }
+
+    private ResultActions changeRole(String token, String username, String role) throws Exception {
+        return mvc.perform(put("/api/admin/users/" + username + "/role")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"role\":\"" + role + "\"}"));
+    }
+
+    private void saveUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRole(role);
+        userRepo.save(user);
+    }
+}
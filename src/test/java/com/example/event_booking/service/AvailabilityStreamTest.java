@@ -0,0 +1,138 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.repository.EventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityStreamTest {
+
+    private static final long EVENT_ID = 7L;
+    private static final long SEND_TIMEOUT_MS = 50;
+
+    private AvailabilityStream stream;
+
+    @BeforeEach
+    void setUp() {
+        SeatInventory inventory = mock(SeatInventory.class);
+        when(inventory.remaining(EVENT_ID)).thenReturn(3);
+        // one fan-out thread: a subscriber that blocked it would starve every other one
+        stream = new AvailabilityStream(inventory, mock(EventRepository.class), new ObjectMapper(),
+                60_000, SEND_TIMEOUT_MS, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stream.stop();
+    }
+
+    @Test
+    void blockedSubscriberNeitherHoldsAThreadNorStaysSubscribed() throws Exception {
+        Client blocked = subscribe(false);
+        Client healthy = subscribe(true);
+
+        stream.onInventoryChanged(new InventoryChangedEvent(EVENT_ID));
+        stream.flush();
+
+        await(() -> healthy.out.text().contains("event:availability\ndata:[{\"eventId\":7,\"remaining\":3"));
+        assertThat(blocked.out.text()).isEmpty();
+        assertThat(stream.subscriberCount()).isEqualTo(2);
+
+        // the blocked connection took nothing for longer than the send timeout
+        Thread.sleep(SEND_TIMEOUT_MS * 2);
+        stream.onInventoryChanged(new InventoryChangedEvent(EVENT_ID));
+        stream.flush();
+
+        assertThat(blocked.request.isAsyncStarted()).isFalse(); // response completed, socket let go
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        await(() -> healthy.out.text().split("event:availability").length == 3);
+        assertThat(healthy.request.isAsyncStarted()).isTrue();
+    }
+
+    @Test
+    void writesResumeWhenTheConnectionBecomesWritableAgain() throws Exception {
+        Client slow = subscribe(false);
+
+        stream.onInventoryChanged(new InventoryChangedEvent(EVENT_ID));
+        stream.flush();
+        Thread.sleep(SEND_TIMEOUT_MS / 5);
+        assertThat(slow.out.text()).isEmpty();
+
+        // what the container does once the socket drains
+        slow.out.ready = true;
+        slow.out.listener.onWritePossible();
+
+        assertThat(slow.out.text()).startsWith("event:availability\n");
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    private Client subscribe(boolean ready) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events/stream");
+        request.setAsyncSupported(true);
+        FakeOutputStream out = new FakeOutputStream(ready);
+        stream.subscribe(request, new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return out;
+            }
+        });
+        return new Client(request, out);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private record Client(MockHttpServletRequest request, FakeOutputStream out) {}
+
+    // a non-blocking servlet stream whose socket is either writable or full
+    private static final class FakeOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        volatile boolean ready;
+        volatile WriteListener listener;
+
+        FakeOutputStream(boolean ready) {
+            this.ready = ready;
+        }
+
+        @Override
+        public boolean isReady() { return ready; }
+
+        @Override
+        public void setWriteListener(WriteListener listener) { this.listener = listener; }
+
+        @Override
+        public synchronized void write(int b) {
+            if (!ready) throw new IllegalStateException("write while not ready");
+            written.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (!ready) throw new IllegalStateException("write while not ready");
+            written.write(b, off, len);
+        }
+
+        synchronized String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
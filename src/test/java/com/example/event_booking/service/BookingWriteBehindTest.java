@@ -0,0 +1,178 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingWriteBehindTest {
+
+    private static final long EVENT_ID = 9L;
+
+    private BookingRepository bookingRepo;
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    // the first saveAll waits on this, so later submits pile up behind it
+    private CountDownLatch firstBatchReleased;
+    private CountDownLatch firstBatchStarted;
+    private Supplier<Map<Long, Integer>> claims;
+    private BookingWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo = mock(BookingRepository.class);
+        firstBatchStarted = new CountDownLatch(1);
+        firstBatchReleased = new CountDownLatch(1);
+        when(bookingRepo.saveAll(anyList())).thenAnswer(inv -> {
+            List<Booking> batch = inv.getArgument(0);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            firstBatchStarted.countDown();
+            awaitRelease();
+            batch.forEach(b -> b.setId(ids.incrementAndGet()));
+            return batch;
+        });
+        when(bookingRepo.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            b.setId(ids.incrementAndGet());
+            return b;
+        });
+        writeBehind = start(10, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        firstBatchReleased.countDown();
+        writeBehind.stop();
+    }
+
+    @Test
+    void rowsQueuedWhileABatchCommitsGoIntoTheNextOne() throws Exception {
+        CompletableFuture<Booking> first = writeBehind.submit(booking(1));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<Booking>> rest = new ArrayList<>();
+        for (int i = 0; i < 5; i++) rest.add(writeBehind.submit(booking(1)));
+
+        // not durable yet: nobody is confirmed before their batch commits
+        assertThat(first).isNotDone();
+        firstBatchReleased.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        for (CompletableFuture<Booking> f : rest) assertThat(f.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThat(batchSizes).containsExactly(1, 5);
+    }
+
+    @Test
+    void aBadRowFailsOnlyItself() throws Exception {
+        firstBatchReleased.countDown();
+        Booking bad = booking(1);
+        doThrow(new DataIntegrityViolationException("duplicate")).when(bookingRepo).saveAll(anyList());
+        doThrow(new DataIntegrityViolationException("duplicate")).when(bookingRepo).save(bad);
+
+        CompletableFuture<Booking> good = writeBehind.submit(booking(1));
+        CompletableFuture<Booking> failed = writeBehind.submit(bad);
+
+        assertThat(good.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void queuedSeatsAreClaimedUntilWritten() throws Exception {
+        CompletableFuture<Booking> first = writeBehind.submit(booking(2));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Booking> second = writeBehind.submit(booking(3));
+
+        assertThat(claims.get()).containsEntry(EVENT_ID, 5);
+
+        firstBatchReleased.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(claims.get()).isEmpty();
+    }
+
+    @Test
+    void fullQueueIsRejectedWithoutClaimingTheSeats() throws Exception {
+        writeBehind.stop();
+        writeBehind = start(1, 1);
+        writeBehind.submit(booking(1)); // taken by the writer, which blocks
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        writeBehind.submit(booking(1)); // fills the queue
+
+        assertThatThrownBy(() -> writeBehind.submit(booking(4))).isInstanceOf(ServiceBusyException.class);
+        assertThat(claims.get()).containsEntry(EVENT_ID, 2);
+    }
+
+    @Test
+    void stopWritesWhatIsStillQueued() throws Exception {
+        writeBehind.submit(booking(1));
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Booking> queued = writeBehind.submit(booking(1));
+
+        firstBatchReleased.countDown();
+        writeBehind.stop();
+
+        assertThat(queued).isCompleted();
+        assertThat(queued.get().getId()).isNotNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookingWriteBehind start(int queueCapacity, long offerTimeoutMs) {
+        SeatLedger ledger = mock(SeatLedger.class);
+        BookingBatchWriter batchWriter = new BookingBatchWriter(bookingRepo, mock(PlatformTransactionManager.class));
+        BookingWriteBehind wb = new BookingWriteBehind(batchWriter, ledger, true, 50, queueCapacity, offerTimeoutMs);
+        ArgumentCaptor<Supplier<Map<Long, Integer>>> source = ArgumentCaptor.forClass(Supplier.class);
+        verify(ledger).addClaimSource(source.capture());
+        claims = source.getValue();
+        wb.start();
+        return wb;
+    }
+
+    // stop() interrupts the writer; the batch it is in must still finish, as with a real commit
+    private void awaitRelease() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                firstBatchReleased.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static Booking booking(int seats) {
+        Event event = new Event();
+        event.setId(EVENT_ID);
+        return new Booking(new User(), event, seats);
+    }
+}
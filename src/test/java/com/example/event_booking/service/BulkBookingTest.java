@@ -0,0 +1,141 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.BulkBookingRequest;
+import com.example.event_booking.dto.BulkResult;
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkbooking;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class BulkBookingTest {
+
+    private static final int USERS = 20;
+
+    @Autowired BookingService bookingService;
+    @Autowired SeatInventory inventory;
+    @Autowired UserRepository userRepo;
+    @Autowired EventRepository eventRepo;
+    @Autowired BookingRepository bookingRepo;
+
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo.deleteAll();
+        eventRepo.deleteAll();
+        userRepo.deleteAll();
+        users.clear();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("bulk" + i);
+            user.setPassword("x");
+            user.setRole("USER");
+            users.add(userRepo.save(user));
+        }
+    }
+
+    @Test
+    void chunkTakesNoMoreThanWhatIsLeft() {
+        Event event = event(3);
+        List<BulkBookingRequest> chunk = new ArrayList<>();
+        for (int i = 0; i < 5; i++) chunk.add(item(users.get(i), event, 1));
+
+        List<BulkResult> results = bookingService.bookBulk(chunk);
+
+        assertThat(results).extracting(BulkResult::getStatus)
+                .containsExactly("created", "created", "created", "sold_out", "sold_out");
+        assertThat(bookingRepo.findByEventId(event.getId())).hasSize(3);
+        assertThat(inventory.remaining(event.getId())).isZero();
+    }
+
+    @Test
+    void repeatsAndExistingBookingsFollowTheSingleBookingRules() {
+        Event event = event(10);
+        Booking before = bookingService.bookTicket(users.get(0).getId(), event.getId(), 2);
+
+        List<BulkResult> results = bookingService.bookBulk(List.of(
+                item(users.get(0), event, 2),   // same as the existing booking
+                item(users.get(0), event, 3),   // different seat count
+                item(users.get(1), event, 1),
+                item(users.get(1), event, 1),   // repeat within the chunk
+                item(users.get(2), event, 11),  // over booking.max-seats
+                item(null, event, 1)));
+
+        assertThat(results).extracting(BulkResult::getStatus)
+                .containsExactly("exists", "conflict", "created", "exists", "error", "error");
+        assertThat(results.get(0).getId()).isEqualTo(before.getId());
+        assertThat(results.get(3).getId()).isEqualTo(results.get(2).getId());
+        assertThat(bookingRepo.findByEventId(event.getId())).hasSize(2);
+        assertThat(inventory.remaining(event.getId())).isEqualTo(10 - 2 - 1);
+    }
+
+    @Test
+    void concurrentChunksNeverOversell() throws Exception {
+        Event event = event(7);
+        // four chunks of five distinct users each, racing for seven seats
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<BulkResult>>> chunks = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            List<BulkBookingRequest> chunk = new ArrayList<>();
+            for (int i = c * 5; i < c * 5 + 5; i++) chunk.add(item(users.get(i), event, 1));
+            chunks.add(pool.submit(() -> {
+                start.await();
+                return bookingService.bookBulk(chunk);
+            }));
+        }
+        start.countDown();
+        long created = 0;
+        for (Future<List<BulkResult>> chunk : chunks) {
+            created += chunk.get().stream().filter(r -> r.getStatus().equals("created")).count();
+        }
+        pool.shutdown();
+
+        assertThat(created).isEqualTo(7);
+        assertThat(bookingRepo.findByEventId(event.getId())).hasSize(7);
+        assertThat(inventory.remaining(event.getId())).isZero();
+    }
+
+    private Event event(int capacity) {
+        Event e = new Event();
+        e.setTitle("Bulk " + capacity);
+        e.setDate(LocalDate.now().plusDays(1));
+        e.setCapacity(capacity);
+        return eventRepo.save(e);
+    }
+
+    private static BulkBookingRequest item(User user, Event event, int seats) {
+        BulkBookingRequest item = new BulkBookingRequest();
+        item.setUserId(user == null ? null : user.getId());
+        item.setEventId(event.getId());
+        item.setSeats(seats);
+        return item;
+    }
+}
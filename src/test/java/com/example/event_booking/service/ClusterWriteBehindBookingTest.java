@@ -0,0 +1,128 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.SoldOutException;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// booking.inventory.mode=cluster together with booking.write-behind.enabled: seats are reserved from
+// events.remaining before the row is queued (see BookingService.admitAndSave)
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clusterwritebehind;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "booking.inventory.mode=cluster",
+        "booking.write-behind.enabled=true",
+        // no leases: every seat comes straight from events.remaining, so the column can be checked exactly
+        "booking.cluster.hot-threshold=100000"
+})
+class ClusterWriteBehindBookingTest {
+
+    private static final int CAPACITY = 5;
+    private static final int USERS = 20;
+
+    @Autowired BookingService bookingService;
+    @Autowired UserRepository userRepo;
+    @Autowired EventRepository eventRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private Event event;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // V7/V9 objects; create-drop only knows the entity mapping
+        jdbc.execute("ALTER TABLE events ADD COLUMN IF NOT EXISTS remaining INT");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS seat_claims (node_id VARCHAR(64) NOT NULL, event_id BIGINT NOT NULL,"
+                + " seats INT NOT NULL, updated_at TIMESTAMP(3) NOT NULL, PRIMARY KEY (node_id, event_id))");
+        bookingRepo.deleteAll();
+        eventRepo.deleteAll();
+        userRepo.deleteAll();
+        users.clear();
+
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setPassword("x");
+            user.setRole("USER");
+            users.add(userRepo.save(user));
+        }
+        Event e = new Event();
+        e.setTitle("Cluster");
+        e.setDate(LocalDate.now().plusDays(1));
+        e.setCapacity(CAPACITY);
+        event = eventRepo.save(e);
+    }
+
+    @Test
+    void concurrentBookingsNeverTakeMoreThanCapacity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(USERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (User user : users) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.bookTicket(user.getId(), event.getId(), 1);
+                        return true;
+                    } catch (SoldOutException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Boolean> result : results) if (result.get()) booked++;
+
+            assertThat(booked).isEqualTo(CAPACITY);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(bookingRepo.findByEventId(event.getId())).hasSize(CAPACITY);
+        assertThat(remaining()).isZero();
+    }
+
+    @Test
+    void seatsOfABookingThatCannotBeWrittenGoBackToTheDb() {
+        bookingService.bookTicket(users.get(0).getId(), event.getId(), 2);
+        assertThat(remaining()).isEqualTo(CAPACITY - 2);
+
+        // the seats are reserved before the unknown user is looked up, then credited back
+        assertThatThrownBy(() -> bookingService.bookTicket(-1L, event.getId(), 2))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(remaining()).isEqualTo(CAPACITY - 2);
+        assertThat(bookingRepo.findByEventId(event.getId())).hasSize(1);
+    }
+
+    private Integer remaining() {
+        return jdbc.queryForObject("SELECT remaining FROM events WHERE id = ?", Integer.class, event.getId());
+    }
+}
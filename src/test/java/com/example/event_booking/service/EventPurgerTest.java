@@ -0,0 +1,107 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.model.Booking;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.model.User;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import com.example.event_booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purger;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "events.delete.async-threshold=2",
+        "events.purge.chunk-size=2",
+        "events.purge.pause-ms=0"
+})
+class EventPurgerTest {
+
+    private static final int BOOKINGS = 7;
+
+    @Autowired EventService eventService;
+    @Autowired EventPurger purger;
+    @Autowired SeatInventory inventory;
+    @Autowired UserRepository userRepo;
+    @Autowired EventRepository eventRepo;
+    @Autowired BookingRepository bookingRepo;
+    @Autowired TransactionTemplate tx;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepo.deleteAll();
+        eventRepo.deleteAll();
+        userRepo.deleteAll();
+
+        Event e = new Event();
+        e.setTitle("Large");
+        e.setDate(LocalDate.now().plusDays(1));
+        e.setCapacity(100);
+        event = eventRepo.save(e);
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            User user = new User();
+            user.setUsername("purge" + i);
+            user.setPassword("x");
+            user.setRole("USER");
+            bookings.add(new Booking(userRepo.save(user), event));
+        }
+        bookingRepo.saveAll(bookings);
+    }
+
+    @Test
+    void largeDeleteIsPurgedInTheBackground() throws Exception {
+        assertThat(eventService.deleteEvent(event.getId())).isFalse();
+        assertThat(inventory.tryAcquire(event.getId(), 1)).isFalse();
+
+        awaitGone(event.getId());
+        assertThat(bookingRepo.countByEventId(event.getId())).isZero();
+    }
+
+    @Test
+    void purgeInterruptedByARestartStaysClosedAndIsResumed() throws Exception {
+        // what a crash leaves behind: the flag is committed, some bookings deleted, no in-memory closed mark
+        tx.executeWithoutResult(status -> eventRepo.markPurging(event.getId()));
+        bookingRepo.deleteAll(bookingRepo.findByEventId(event.getId()).subList(0, 3));
+        inventory.deleted(event.getId());
+
+        // a fresh counter warms from the row and sees the flag
+        assertThat(inventory.tryAcquire(event.getId(), 1)).isFalse();
+        assertThat(inventory.isClosed(event.getId())).isTrue();
+
+        purger.resumeInterrupted();
+
+        awaitGone(event.getId());
+        assertThat(bookingRepo.countByEventId(event.getId())).isZero();
+        assertThat(eventRepo.findPurgingIds()).isEmpty();
+        assertThat(inventory.isClosed(event.getId())).isFalse();
+    }
+
+    private void awaitGone(Long eventId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (eventRepo.existsById(eventId) || purger.isPending(eventId)) {
+            assertThat(System.currentTimeMillis()).as("purge did not finish in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
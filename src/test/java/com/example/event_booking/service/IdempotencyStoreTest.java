@@ -0,0 +1,58 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.BookingView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, 60_000);
+
+    @Test
+    void retryIsAnsweredWithTheStoredResponse() {
+        BookingView booked = view(10L, 2);
+        store.put("alice", "key-1", 5L, 2, booked);
+
+        IdempotencyStore.Replay replay = store.get("alice", "key-1");
+        assertThat(replay.response()).isSameAs(booked);
+        assertThat(replay.matches(5L, 2)).isTrue();
+        // the same key reused for a different request is not a retry
+        assertThat(replay.matches(5L, 3)).isFalse();
+        assertThat(replay.matches(6L, 2)).isFalse();
+    }
+
+    @Test
+    void keysAreScopedToTheUser() {
+        store.put("alice", "key-1", 5L, 1, view(10L, 1));
+
+        assertThat(store.get("bob", "key-1")).isNull();
+    }
+
+    @Test
+    void cancelledBookingIsForgotten() {
+        store.put("alice", "key-1", 5L, 1, view(10L, 1));
+        store.put("alice", "key-2", 5L, 1, view(11L, 1));
+
+        store.forget(10L);
+
+        assertThat(store.get("alice", "key-1")).isNull();
+        assertThat(store.get("alice", "key-2")).isNotNull();
+        store.forget(99L); // unknown booking: nothing to do
+    }
+
+    @Test
+    void responsesExpire() throws Exception {
+        IdempotencyStore shortLived = new IdempotencyStore(100, 30);
+        shortLived.put("alice", "key-1", 5L, 1, view(10L, 1));
+
+        Thread.sleep(60);
+        assertThat(shortLived.get("alice", "key-1")).isNull();
+    }
+
+    private static BookingView view(Long id, int seats) {
+        return new BookingView(id, seats, 1L, "alice", 5L, "Concert", LocalDate.of(2030, 1, 1), 100);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.HoldView;
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.exception.ServiceBusyException;
+import com.example.event_booking.exception.SoldOutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatHoldsTest {
+
+    private static final long EVENT_ID = 3L;
+    private static final long TTL_MS = 50;
+
+    private SeatInventory inventory;
+    private BookingService bookingService;
+    private ApplicationEventPublisher events;
+    private SeatHolds holds;
+
+    @BeforeEach
+    void setUp() {
+        inventory = mock(SeatInventory.class);
+        bookingService = mock(BookingService.class);
+        events = mock(ApplicationEventPublisher.class);
+        when(inventory.tryHold(anyLong(), anyInt())).thenReturn(true);
+        holds = new SeatHolds(inventory, bookingService, events, TTL_MS, 10, 16, 3, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void expiredHoldsGiveTheirSeatsBackInOneBatch() throws Exception {
+        HoldView alice = holds.hold("alice", EVENT_ID);
+        holds.hold("bob", EVENT_ID);
+
+        holds.expire();
+        verify(inventory, never()).releaseHold(anyLong(), anyInt()); // not due yet
+
+        Thread.sleep(TTL_MS + 30);
+        holds.expire();
+
+        verify(inventory).releaseHold(EVENT_ID, 2);
+        assertThat(holds.activeCount()).isZero();
+        assertThatThrownBy(() -> holds.confirm("alice", alice.getHoldId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(bookingService, never()).confirmHeld(any(), any());
+
+        // ticking again releases nothing twice
+        holds.expire();
+        verify(inventory, times(1)).releaseHold(anyLong(), anyInt());
+    }
+
+    @Test
+    void releasedOrConfirmedHoldDoesNotExpireLater() throws Exception {
+        HoldView alice = holds.hold("alice", EVENT_ID);
+        HoldView bob = holds.hold("bob", EVENT_ID);
+
+        holds.release("alice", alice.getHoldId());
+        holds.confirm("bob", bob.getHoldId());
+        verify(inventory).releaseHold(EVENT_ID, 1);
+        verify(inventory).confirmHold(EVENT_ID, 1);
+        verify(bookingService).confirmHeld("bob", EVENT_ID);
+
+        Thread.sleep(TTL_MS + 30);
+        holds.expire();
+        verify(inventory, times(1)).releaseHold(anyLong(), anyInt());
+
+        // each hold ends exactly once
+        assertThatThrownBy(() -> holds.release("alice", alice.getHoldId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void holdBelongsToItsUser() {
+        HoldView alice = holds.hold("alice", EVENT_ID);
+
+        assertThatThrownBy(() -> holds.confirm("bob", alice.getHoldId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(holds.activeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentHoldsBySameUserTakeOneSeat() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HoldView>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return holds.hold("alice", EVENT_ID);
+            }));
+        }
+        start.countDown();
+        List<String> ids = new ArrayList<>();
+        for (Future<HoldView> result : results) ids.add(result.get(10, TimeUnit.SECONDS).getHoldId());
+        pool.shutdown();
+
+        assertThat(ids).containsOnly(ids.get(0));
+        assertThat(holds.activeCount()).isEqualTo(1);
+        // whoever lost the race handed its seat straight back
+        assertThat(calls("tryHold") - calls("releaseHold")).isEqualTo(1);
+    }
+
+    @Test
+    void soldOutEventIsRejected() {
+        when(inventory.tryHold(EVENT_ID, 1)).thenReturn(false);
+
+        assertThatThrownBy(() -> holds.hold("alice", EVENT_ID)).isInstanceOf(SoldOutException.class);
+        assertThat(holds.activeCount()).isZero();
+    }
+
+    @Test
+    void holdsBeyondMaxActiveAreRejectedWithoutTakingASeat() {
+        holds.hold("a", EVENT_ID);
+        holds.hold("b", EVENT_ID);
+        holds.hold("c", EVENT_ID); // max-active is 3
+
+        assertThatThrownBy(() -> holds.hold("d", EVENT_ID)).isInstanceOf(ServiceBusyException.class);
+        verify(inventory, times(3)).tryHold(EVENT_ID, 1);
+        // an existing hold is still returned
+        assertThat(holds.hold("a", EVENT_ID)).isNotNull();
+    }
+
+    @Test
+    void shutdownHandsBackEveryLiveHold() {
+        holds.hold("alice", EVENT_ID);
+        holds.hold("bob", EVENT_ID);
+        holds.hold("carol", 4L);
+
+        holds.releaseAll();
+
+        verify(inventory).releaseHold(EVENT_ID, 2);
+        verify(inventory).releaseHold(4L, 1);
+        assertThat(holds.activeCount()).isZero();
+    }
+
+    private long calls(String method) {
+        return mockingDetails(inventory).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals(method))
+                .count();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.model.Event;
+import com.example.event_booking.repository.BookingRepository;
+import com.example.event_booking.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryTest {
+
+    private static final long EVENT_ID = 1L;
+
+    private EventRepository eventRepo;
+    private BookingRepository bookingRepo;
+    private SeatInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        eventRepo = mock(EventRepository.class);
+        bookingRepo = mock(BookingRepository.class);
+        // a mocked ledger reports isEnabled() == false: the in-memory counters are used
+        inventory = new SeatInventory(eventRepo, bookingRepo, mock(SeatLedger.class));
+        givenEvent(EVENT_ID, 100, 0);
+    }
+
+    @Test
+    void concurrentAcquiresNeverOversell() throws Exception {
+        givenEvent(EVENT_ID, 50, 10); // 40 seats left
+        int threads = 16;
+        int attemptsPerThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int won = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (inventory.tryAcquire(EVENT_ID, 1)) won++;
+                }
+                return won;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) total += result.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(total).isEqualTo(40);
+        assertThat(inventory.remaining(EVENT_ID)).isZero();
+        assertThat(inventory.isSoldOut(EVENT_ID)).isTrue();
+        // warmed once, however many threads raced for the first acquire
+        verify(bookingRepo, times(1)).sumSeatsByEventId(EVENT_ID);
+    }
+
+    @Test
+    void requestLargerThanWhatIsLeftTakesNothing() {
+        givenEvent(EVENT_ID, 5, 0);
+
+        assertThat(inventory.tryAcquire(EVENT_ID, 3)).isTrue();
+        assertThat(inventory.tryAcquire(EVENT_ID, 3)).isFalse();
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(2);
+
+        inventory.release(EVENT_ID, 3);
+        assertThat(inventory.tryAcquire(EVENT_ID, 5)).isTrue();
+        assertThat(inventory.isSoldOut(EVENT_ID)).isTrue();
+    }
+
+    @Test
+    void releaseBeforeWarmUpIsANoOp() {
+        inventory.release(EVENT_ID, 5);
+
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(-1);
+        assertThat(inventory.available(EVENT_ID)).isEqualTo(100);
+    }
+
+    @Test
+    void expiredHoldGoesBackToThePoolAndConfirmedHoldDoesNot() {
+        givenEvent(EVENT_ID, 10, 0);
+
+        assertThat(inventory.tryHold(EVENT_ID, 4)).isTrue();
+        assertThat(inventory.tryHold(EVENT_ID, 4)).isTrue();
+        assertThat(inventory.tryHold(EVENT_ID, 4)).isFalse();
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(2);
+
+        inventory.releaseHold(EVENT_ID, 4);
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(6);
+
+        inventory.confirmHold(EVENT_ID, 4);
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(6);
+    }
+
+    @Test
+    void concurrentHoldsAndReleasesBalance() throws Exception {
+        givenEvent(EVENT_ID, 8, 0);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                    // 8 threads x 2 seats on a capacity of 8: about half the attempts lose
+                    if (inventory.tryHold(EVENT_ID, 2)) {
+                        assertThat(inventory.remaining(EVENT_ID)).isBetween(0, 6);
+                        inventory.releaseHold(EVENT_ID, 2);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) result.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(8);
+    }
+
+    @Test
+    void closedEventAdmitsNobodyUntilDeleted() {
+        assertThat(inventory.tryAcquire(EVENT_ID, 1)).isTrue();
+
+        inventory.close(EVENT_ID);
+        assertThat(inventory.tryAcquire(EVENT_ID, 1)).isFalse();
+        assertThat(inventory.tryHold(EVENT_ID, 1)).isFalse();
+        assertThat(inventory.isSoldOut(EVENT_ID)).isTrue();
+
+        inventory.deleted(EVENT_ID);
+        assertThat(inventory.isClosed(EVENT_ID)).isFalse();
+        assertThat(inventory.remaining(EVENT_ID)).isEqualTo(-1);
+    }
+
+    @Test
+    void purgingEventIsClosedWhenItsCounterIsWarmed() {
+        Event event = givenEvent(EVENT_ID, 10, 0);
+        event.setPurging(true);
+
+        assertThat(inventory.tryAcquire(EVENT_ID, 1)).isFalse();
+        assertThat(inventory.isClosed(EVENT_ID)).isTrue();
+    }
+
+    @Test
+    void unknownEventIsNotFound() {
+        when(eventRepo.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> inventory.tryAcquire(99L, 1)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(inventory.remaining(99L)).isEqualTo(-1);
+    }
+
+    private Event givenEvent(long id, int capacity, long booked) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCapacity(capacity);
+        when(eventRepo.findById(id)).thenReturn(Optional.of(event));
+        when(bookingRepo.sumSeatsByEventId(id)).thenReturn(booked);
+        return event;
+    }
+}
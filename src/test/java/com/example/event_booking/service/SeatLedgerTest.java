@@ -0,0 +1,192 @@
+package com.example.event_booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two SeatLedger instances on one H2 database stand in for two nodes of a cluster.
+class SeatLedgerTest {
+
+    private static final long EVENT_ID = 1L;
+    private static final int CAPACITY = 100;
+    private static final long CLAIM_TTL_MS = 50;
+
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager txManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:seatledger;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        txManager = new DataSourceTransactionManager(dataSource);
+        // only the columns SeatLedger reads (V1, V7, V9)
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE events (id BIGINT PRIMARY KEY, capacity INT, remaining INT)");
+        jdbc.execute("CREATE TABLE bookings (id BIGINT AUTO_INCREMENT PRIMARY KEY, event_id BIGINT NOT NULL, seats INT NOT NULL)");
+        jdbc.execute("CREATE TABLE seat_claims (node_id VARCHAR(64) NOT NULL, event_id BIGINT NOT NULL,"
+                + " seats INT NOT NULL, updated_at TIMESTAMP(3) NOT NULL, PRIMARY KEY (node_id, event_id))");
+        jdbc.update("INSERT INTO events (id, capacity, remaining) VALUES (?, ?, ?)", EVENT_ID, CAPACITY, CAPACITY);
+    }
+
+    @Test
+    void concurrentReservesOnTwoNodesNeverOversell() throws Exception {
+        SeatLedger[] nodes = {node("a", 100_000, 10), node("b", 100_000, 10)};
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SeatLedger ledger = nodes[t % 2];
+            results.add(pool.submit(() -> {
+                start.await();
+                int won = 0;
+                for (int i = 0; i < 20; i++) {
+                    if (ledger.reserve(EVENT_ID, 1)) won++;
+                }
+                return won;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) total += result.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(total).isEqualTo(CAPACITY);
+        assertThat(remaining()).isZero();
+        assertThat(nodes[0].reserve(EVENT_ID, 1)).isFalse();
+        assertThat(nodes[0].isSoldOut(EVENT_ID)).isTrue();
+    }
+
+    @Test
+    void hotEventIsServedFromALeaseUntilItCoolsDown() {
+        SeatLedger ledger = node("a", 2, 10);
+        ledger.reserve(EVENT_ID, 1);
+        ledger.reserve(EVENT_ID, 1);
+        ledger.rebalance(); // two takes this window: hot
+        assertThat(remaining()).isEqualTo(CAPACITY - 2);
+
+        assertThat(ledger.reserve(EVENT_ID, 1)).isTrue();
+        assertThat(remaining()).isEqualTo(CAPACITY - 2 - 10); // one UPDATE for the whole block
+        assertThat(ledger.reserve(EVENT_ID, 1)).isTrue();
+        assertThat(remaining()).isEqualTo(CAPACITY - 2 - 10);
+        assertThat(ledger.available(EVENT_ID)).isEqualTo(CAPACITY - 4);
+
+        // the unused part of the lease is this node's claim
+        ledger.rebalance();
+        assertThat(claimedSeats("a")).isEqualTo(8);
+
+        // a quiet window: the lease goes back and the claim with it
+        ledger.rebalance();
+        assertThat(remaining()).isEqualTo(CAPACITY - 4);
+        assertThat(claimedSeats("a")).isZero();
+    }
+
+    @Test
+    void crashedNodesClaimsAreCreditedBackByAnotherNode() throws Exception {
+        SeatLedger crashed = node("a", 2, 10);
+        // two seats held (never confirmed) plus a hot lease from which two seats were booked
+        assertThat(crashed.reserve(EVENT_ID, 2)).isTrue();
+        crashed.addClaimSource(() -> Map.of(EVENT_ID, 2));
+        crashed.rebalance();
+        crashed.reserve(EVENT_ID, 1);
+        crashed.reserve(EVENT_ID, 1);
+        book(2);
+        crashed.rebalance(); // still hot; publishes 2 held + 8 leased
+        assertThat(claimedSeats("a")).isEqualTo(10);
+        assertThat(remaining()).isEqualTo(CAPACITY - 2 - 10);
+
+        // node a dies without returning anything; node b notices once the claims go stale
+        SeatLedger survivor = node("b", 2, 10);
+        survivor.rebalance();
+        assertThat(remaining()).isEqualTo(CAPACITY - 2 - 10);
+
+        Thread.sleep(CLAIM_TTL_MS * 2);
+        survivor.rebalance();
+
+        assertThat(remaining()).isEqualTo(CAPACITY - 2);
+        assertThat(claimedSeats("a")).isZero();
+    }
+
+    @Test
+    void staleClaimIsNeverCreditedBeyondWhatNobodyAccountsFor() throws Exception {
+        // the claim was published just before its held seats were confirmed as bookings
+        jdbc.update("UPDATE events SET remaining = ? WHERE id = ?", CAPACITY - 5, EVENT_ID);
+        book(3);
+        insertClaim("a", 5, System.currentTimeMillis() - CLAIM_TTL_MS * 10);
+        // seats a live node still holds are not up for grabs either
+        insertClaim("c", 1, System.currentTimeMillis() + 60_000);
+
+        node("b", 2, 10).rebalance();
+
+        // capacity 100 - booked 3 - remaining 95 - live 1 = 1 seat unaccounted for
+        assertThat(remaining()).isEqualTo(CAPACITY - 4);
+        assertThat(claimedSeats("a")).isZero();
+        assertThat(claimedSeats("c")).isEqualTo(1);
+    }
+
+    @Test
+    void uncountedEventIsCountedFromBookingsOnFirstTake() {
+        jdbc.update("UPDATE events SET capacity = 10, remaining = NULL WHERE id = ?", EVENT_ID);
+        book(3);
+        SeatLedger ledger = node("a", 100_000, 10);
+
+        assertThat(ledger.available(EVENT_ID)).isEqualTo(7);
+        assertThat(ledger.reserve(EVENT_ID, 7)).isTrue();
+        assertThat(ledger.reserve(EVENT_ID, 1)).isFalse();
+
+        ledger.unreserve(EVENT_ID, 2);
+        assertThat(ledger.isSoldOut(EVENT_ID)).isFalse();
+        assertThat(remaining()).isEqualTo(2);
+    }
+
+    @Test
+    void closeTakesEverySeatOffSaleAndReturnsTheLease() {
+        SeatLedger ledger = node("a", 1, 10);
+        ledger.reserve(EVENT_ID, 1);
+        ledger.rebalance();
+        ledger.reserve(EVENT_ID, 1); // leases 10
+
+        ledger.close(EVENT_ID);
+
+        assertThat(remaining()).isZero();
+        assertThat(ledger.available(EVENT_ID)).isZero();
+        assertThat(ledger.reserve(EVENT_ID, 1)).isFalse();
+    }
+
+    private SeatLedger node(String nodeId, int hotThreshold, int leaseSize) {
+        return new SeatLedger(jdbc, txManager, "cluster", leaseSize, hotThreshold, 1_000, nodeId, CLAIM_TTL_MS);
+    }
+
+    private void book(int seats) {
+        jdbc.update("INSERT INTO bookings (event_id, seats) VALUES (?, ?)", EVENT_ID, seats);
+    }
+
+    private void insertClaim(String nodeId, int seats, long updatedAt) {
+        jdbc.update("INSERT INTO seat_claims (node_id, event_id, seats, updated_at) VALUES (?, ?, ?, ?)",
+                nodeId, EVENT_ID, seats, new Timestamp(updatedAt));
+    }
+
+    private int remaining() {
+        return jdbc.queryForObject("SELECT remaining FROM events WHERE id = ?", Integer.class, EVENT_ID);
+    }
+
+    private int claimedSeats(String nodeId) {
+        return jdbc.queryForObject("SELECT COALESCE(SUM(seats), 0) FROM seat_claims WHERE node_id = ?",
+                Integer.class, nodeId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.event_booking.service;
+
+import com.example.event_booking.dto.AdmissionStatus;
+import com.example.event_booking.exception.ResourceNotFoundException;
+import com.example.event_booking.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitingRoomTest {
+
+    private static final long EVENT_ID = 42L;
+
+    private SeatInventory inventory;
+    private WaitingRoom room;
+
+    @BeforeEach
+    void setUp() {
+        inventory = mock(SeatInventory.class);
+        when(inventory.available(EVENT_ID)).thenReturn(100);
+        JwtUtil jwtUtil = new JwtUtil("waiting-room-test-secret-waiting-room-test-secret",
+                3_600_000, 1_000, 300_000, new SimpleMeterRegistry());
+        // one position admitted per admit() call
+        room = new WaitingRoom(inventory, jwtUtil, true, 1, 1000, 900_000);
+    }
+
+    @Test
+    void statusPollsReturnTheTicketMintedOnJoin() {
+        String ticket = room.join("alice", EVENT_ID).getTicket();
+
+        assertThat(room.status("alice", EVENT_ID).getTicket()).isSameAs(ticket);
+        assertThat(room.join("alice", EVENT_ID).getTicket()).isSameAs(ticket);
+    }
+
+    @Test
+    void positionsAreAdmittedInOrderAsTheWatermarkRises() {
+        String alice = room.join("alice", EVENT_ID).getTicket();
+        AdmissionStatus bob = room.join("bob", EVENT_ID);
+        assertThat(bob.getPosition()).isEqualTo(2);
+        assertThat(bob.getAhead()).isEqualTo(1);
+
+        assertThat(room.isAdmitted(alice, "alice", EVENT_ID)).isFalse();
+        room.admit();
+        assertThat(room.isAdmitted(alice, "alice", EVENT_ID)).isTrue();
+        assertThat(room.isAdmitted(bob.getTicket(), "bob", EVENT_ID)).isFalse();
+        room.admit();
+        assertThat(room.isAdmitted(bob.getTicket(), "bob", EVENT_ID)).isTrue();
+
+        // a ticket is bound to its holder
+        assertThat(room.isAdmitted(alice, "bob", EVENT_ID)).isFalse();
+    }
+
+    @Test
+    void ticketOfADroppedRoomIsNotAdmittedByItsReplacement() {
+        String old = room.join("alice", EVENT_ID).getTicket();
+
+        when(inventory.isSoldOut(EVENT_ID)).thenReturn(true);
+        room.admit(); // drops the room
+        when(inventory.isSoldOut(EVENT_ID)).thenReturn(false);
+
+        String fresh = room.join("alice", EVENT_ID).getTicket();
+        room.admit();
+
+        assertThat(room.isValidTicket(old, "alice", EVENT_ID)).isFalse();
+        assertThat(room.isAdmitted(old, "alice", EVENT_ID)).isFalse();
+        assertThat(room.isAdmitted(fresh, "alice", EVENT_ID)).isTrue();
+    }
+
+    @Test
+    void statusNeverJoins() {
+        room.join("alice", EVENT_ID);
+
+        assertThatThrownBy(() -> room.status("bob", EVENT_ID)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(room.join("bob", EVENT_ID).getPosition()).isEqualTo(2);
+    }
+}
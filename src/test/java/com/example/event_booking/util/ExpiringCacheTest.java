@@ -0,0 +1,97 @@
+package com.example.event_booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTest {
+
+    @Test
+    void entriesExpireAfterTheTtl() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 50);
+        cache.put("a", "1");
+
+        assertThat(cache.get("a")).isEqualTo("1");
+        Thread.sleep(80);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero(); // an expired entry is dropped when read
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void explicitDeadlineIsCappedByTheTtl() throws Exception {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 50);
+        long now = System.currentTimeMillis();
+        cache.put("short", "1", now + 10);
+        cache.put("long", "2", now + 60_000);
+
+        Thread.sleep(30);
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isEqualTo("2");
+        Thread.sleep(50);
+        assertThat(cache.get("long")).isNull();
+    }
+
+    @Test
+    void getOrLoadCachesValuesButNotNulls() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.getOrLoad("a", k -> { loads.incrementAndGet(); return "v"; })).isEqualTo("v");
+        assertThat(cache.getOrLoad("a", k -> { loads.incrementAndGet(); return "other"; })).isEqualTo("v");
+        assertThat(cache.getOrLoad("b", k -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.getOrLoad("b", k -> { loads.incrementAndGet(); return null; })).isNull();
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void staysBoundedAndPrefersDroppingExpiredEntries() throws Exception {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(10, 60_000);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) cache.put(i, i, now + 10);
+        for (int i = 5; i < 10; i++) cache.put(i, i);
+        Thread.sleep(30);
+
+        cache.put(10, 10);
+        assertThat(cache.size()).isEqualTo(6);
+        for (int i = 5; i <= 10; i++) assertThat(cache.get(i)).isEqualTo(i);
+
+        for (int i = 11; i < 1_000; i++) cache.put(i, i);
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get(999)).isEqualTo(999);
+    }
+
+    @Test
+    void overwritingAKeyWhenFullEvictsNothing() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3, 60_000);
+        for (int i = 0; i < 3; i++) cache.put(i, i);
+
+        cache.put(1, 100);
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(0)).isZero();
+        assertThat(cache.get(1)).isEqualTo(100);
+    }
+
+    @Test
+    void invalidateRemovesEntries() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60_000);
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsANonPositiveSize() {
+        assertThatThrownBy(() -> new ExpiringCache<>(0, 1_000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
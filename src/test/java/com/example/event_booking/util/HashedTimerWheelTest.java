@@ -0,0 +1,104 @@
+package com.example.event_booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimerWheelTest {
+
+    private static final long TICK_MS = 10;
+
+    @Test
+    void timeoutFiresOnceItsDeadlinePassedAndNeverEarly() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, 8);
+        long now = System.currentTimeMillis();
+        wheel.schedule("a", 100);
+
+        assertThat(wheel.advance(now + 50)).isEmpty();
+        assertThat(wheel.advance(now + 80)).isEmpty();
+        assertThat(wheel.advance(now + 300)).containsExactly("a");
+        assertThat(wheel.advance(now + 600)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBeyondOneRotationWaitForTheirRound() {
+        // 4 buckets x 10 ms: a 200 ms deadline lands in a bucket that comes up five times first
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, 4);
+        long now = System.currentTimeMillis();
+        wheel.schedule("late", 200);
+        wheel.schedule("soon", 15);
+
+        List<String> fired = new ArrayList<>();
+        for (long t = now; t < now + 180; t += TICK_MS) fired.addAll(wheel.advance(t));
+        assertThat(fired).containsExactly("soon");
+
+        for (long t = now + 180; t <= now + 250; t += TICK_MS) fired.addAll(wheel.advance(t));
+        assertThat(fired).containsExactly("soon", "late");
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, 8);
+        long now = System.currentTimeMillis();
+        HashedTimerWheel<String>.Timeout before = wheel.schedule("cancelled-before-transfer", 20);
+        HashedTimerWheel<String>.Timeout after = wheel.schedule("cancelled-in-bucket", 20);
+        wheel.schedule("kept", 20);
+
+        assertThat(before.cancel()).isTrue();
+        wheel.advance(now); // moves the rest into their buckets
+        assertThat(after.cancel()).isTrue();
+        assertThat(after.cancel()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(wheel.advance(now + 100)).containsExactly("kept");
+    }
+
+    @Test
+    void firedTimeoutCannotBeCancelled() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, 8);
+        HashedTimerWheel<String>.Timeout t = wheel.schedule("a", 0);
+
+        assertThat(wheel.advance(System.currentTimeMillis() + TICK_MS)).containsExactly("a");
+        assertThat(t.cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void timeoutsScheduledFromManyThreadsAllFireExactlyOnce() throws Exception {
+        HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(TICK_MS, 64);
+        int threads = 8;
+        int perThread = 1_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) wheel.schedule(base + i, i % 500);
+                done.countDown();
+            });
+        }
+        // the single driver keeps advancing while timeouts are being added
+        List<Integer> fired = new ArrayList<>();
+        while (!done.await(1, TimeUnit.MILLISECONDS)) fired.addAll(wheel.advance(System.currentTimeMillis()));
+        pool.shutdown();
+        fired.addAll(wheel.advance(System.currentTimeMillis() + 1_000));
+
+        assertThat(fired).hasSize(threads * perThread).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThatThrownBy(() -> new HashedTimerWheel<>(0, 8)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HashedTimerWheel<>(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}